@@ -0,0 +1,38 @@
+/*-
+ * #%L
+ * schema2proto-benchmarks
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package com.squareup.wire.schema;
+
+import com.squareup.wire.schema.internal.parser.ProtoFileElement;
+
+/**
+ * Exposes package private parts of the wire schema model to the benchmarks, so that parsing and linking can be measured separately
+ */
+public final class WireBenchmarkAccess {
+
+	private WireBenchmarkAccess() {
+	}
+
+	public static ProtoFile toProtoFile(ProtoFileElement element) {
+		return ProtoFile.get(element);
+	}
+}
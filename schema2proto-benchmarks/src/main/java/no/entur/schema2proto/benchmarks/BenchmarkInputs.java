@@ -0,0 +1,119 @@
+/*-
+ * #%L
+ * schema2proto-benchmarks
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import no.entur.schema2proto.generateproto.Schema2ProtoConfiguration;
+
+/**
+ * Resolves named benchmark inputs to XSD files on disk.
+ * <p>
+ * Named inputs ({@code nato}, {@code multinamespace}, {@code recipeml}) refer to the test schemas in schema2proto-lib. Their location can be overridden with
+ * the system property {@value #XSD_ROOT_PROPERTY}, otherwise they are looked up relative to the repository root or the benchmark module. Synthetic inputs are
+ * named {@code synthetic-<complexTypes>} and are generated into the given work directory.
+ */
+public final class BenchmarkInputs {
+
+	public static final String XSD_ROOT_PROPERTY = "schema2proto.benchmark.xsdRoot";
+
+	private static final String SYNTHETIC_PREFIX = "synthetic-";
+	private static final String[] XSD_ROOT_CANDIDATES = { "schema2proto-lib/src/test/resources/xsd", "../schema2proto-lib/src/test/resources/xsd" };
+
+	private BenchmarkInputs() {
+	}
+
+	public static File resolve(String input, File workDirectory) throws IOException {
+		if (input.startsWith(SYNTHETIC_PREFIX)) {
+			int complexTypes = Integer.parseInt(input.substring(SYNTHETIC_PREFIX.length()));
+			return syntheticSchema().complexTypes(complexTypes).write(new File(workDirectory, "xsd"));
+		}
+
+		switch (input) {
+		case "nato":
+			return testSchema("nato/Locations.xsd");
+		case "multinamespace":
+			return testSchema("multinamespace/ns-person.xsd");
+		case "recipeml":
+			return testSchema("recipeml.xsd");
+		default:
+			throw new IllegalArgumentException("Unknown benchmark input " + input);
+		}
+	}
+
+	/**
+	 * Shape of the synthetic inputs: 4 namespaces, extension chains of depth 3, substitution groups with 5 members and one anonymous local type and one
+	 * repeated group per complexType
+	 */
+	public static SyntheticSchemaGenerator syntheticSchema() {
+		return new SyntheticSchemaGenerator().namespaces(4).extensionDepth(3).substitutionGroupFanOut(5).anonymousLocalTypes(1).repeatedGroups(1);
+	}
+
+	/**
+	 * Configuration used by all conversion benchmarks. Mirrors the defaults of the command line tool, writing into the given output directory.
+	 */
+	public static Schema2ProtoConfiguration configuration(File xsdFile, File outputDirectory) {
+		Schema2ProtoConfiguration configuration = new Schema2ProtoConfiguration();
+		configuration.xsdFile = xsdFile;
+		configuration.outputDirectory = outputDirectory;
+		return configuration;
+	}
+
+	public static File createWorkDirectory() throws IOException {
+		return Files.createTempDirectory("schema2proto-benchmark").toFile();
+	}
+
+	public static void deleteRecursively(File directory) throws IOException {
+		if (directory != null && directory.exists()) {
+			try (Stream<Path> paths = Files.walk(directory.toPath())) {
+				paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+			}
+		}
+	}
+
+	private static File testSchema(String relativePath) throws IOException {
+		String configuredRoot = System.getProperty(XSD_ROOT_PROPERTY);
+		if (configuredRoot != null) {
+			return existing(new File(configuredRoot, relativePath));
+		}
+		for (String candidate : XSD_ROOT_CANDIDATES) {
+			File file = new File(candidate, relativePath);
+			if (file.exists()) {
+				return file.getAbsoluteFile();
+			}
+		}
+		throw new IOException(String.format("Could not find test schema %s, run from the repository root or set -D%s", relativePath, XSD_ROOT_PROPERTY));
+	}
+
+	private static File existing(File file) throws IOException {
+		if (!file.exists()) {
+			throw new IOException("Benchmark input " + file.getAbsolutePath() + " not found");
+		}
+		return file.getAbsoluteFile();
+	}
+}
@@ -0,0 +1,136 @@
+/*-
+ * #%L
+ * schema2proto-benchmarks
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.SAXException;
+
+import com.squareup.wire.schema.ProtoFile;
+
+import no.entur.schema2proto.InvalidConfigurationException;
+import no.entur.schema2proto.generateproto.InvalidXSDException;
+import no.entur.schema2proto.generateproto.LocalType;
+import no.entur.schema2proto.generateproto.ProtoSerializer;
+import no.entur.schema2proto.generateproto.Schema2Proto;
+import no.entur.schema2proto.generateproto.Schema2ProtoConfiguration;
+import no.entur.schema2proto.generateproto.SchemaParser;
+import no.entur.schema2proto.generateproto.TypeAndNameMapper;
+
+/**
+ * End-to-end and per stage benchmarks of XSD to proto conversion.
+ * <p>
+ * Run with {@code java -jar schema2proto-benchmarks/target/benchmarks.jar ConversionBenchmark -prof gc} from the repository root to get throughput and
+ * allocation rates per input.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g", "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn" })
+public class ConversionBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Input {
+
+		@Param({ "nato", "multinamespace", "recipeml", "synthetic-1000", "synthetic-5000" })
+		public String input;
+
+		File workDirectory;
+		File xsdFile;
+		Schema2ProtoConfiguration configuration;
+
+		@Setup(Level.Trial)
+		public void setUp() throws IOException, InvalidConfigurationException {
+			workDirectory = BenchmarkInputs.createWorkDirectory();
+			xsdFile = BenchmarkInputs.resolve(input, workDirectory);
+			configuration = BenchmarkInputs.configuration(xsdFile, new File(workDirectory, "proto"));
+
+			// Leave a complete set of written files behind for the parseWrittenFiles benchmark
+			Schema2Proto.parseAndSerialize(configuration);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			BenchmarkInputs.deleteRecursively(workDirectory);
+		}
+	}
+
+	/**
+	 * A freshly parsed model for each invocation, as {@link ProtoSerializer#serialize} modifies the model in place.
+	 */
+	@State(Scope.Thread)
+	public static class ParsedModel {
+		Map<String, ProtoFile> packageToProtoFileMap;
+		List<LocalType> localTypes;
+
+		@Setup(Level.Invocation)
+		public void setUp(Input input) throws IOException, SAXException {
+			SchemaParser schemaParser = new SchemaParser(input.configuration);
+			packageToProtoFileMap = schemaParser.parse();
+			localTypes = schemaParser.getLocalTypes();
+		}
+	}
+
+	@Benchmark
+	public Schema2ProtoConfiguration parseAndSerialize(Input input) throws IOException, InvalidConfigurationException {
+		Schema2Proto.parseAndSerialize(input.configuration);
+		return input.configuration;
+	}
+
+	@Benchmark
+	public Map<String, ProtoFile> parse(Input input) throws IOException, SAXException {
+		return new SchemaParser(input.configuration).parse();
+	}
+
+	@Benchmark
+	public Map<String, ProtoFile> serialize(Input input, ParsedModel model) throws IOException, InvalidConfigurationException, InvalidXSDException {
+		ProtoSerializer serializer = new ProtoSerializer(input.configuration, new TypeAndNameMapper(input.configuration));
+		serializer.serialize(model.packageToProtoFileMap, model.localTypes);
+		return model.packageToProtoFileMap;
+	}
+
+	@Benchmark
+	public ProtoSerializer parseWrittenFiles(Input input) throws IOException, InvalidConfigurationException {
+		ProtoSerializer serializer = new ProtoSerializer(input.configuration, new TypeAndNameMapper(input.configuration));
+		serializer.parseWrittenFiles();
+		return serializer;
+	}
+}
@@ -0,0 +1,161 @@
+/*-
+ * #%L
+ * schema2proto-benchmarks
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.squareup.wire.schema.IdentifierSet;
+
+/**
+ * Generates a synthetic tree of proto files for the wire benchmarks. Messages are spread over files of {@value #MESSAGES_PER_FILE} messages, each file in its
+ * own package importing the previous one. Messages have scalar, repeated, enum, oneof and nested message fields and reference both the previous message in the
+ * same file and a message in the imported file.
+ */
+public class SyntheticProtoGenerator {
+
+	static final String PACKAGE_PREFIX = "bench.pkg";
+	private static final int MESSAGES_PER_FILE = 100;
+	private static final int MESSAGES_PER_ENUM = 10;
+
+	private final int messages;
+
+	public SyntheticProtoGenerator(int messages) {
+		if (messages < 1) {
+			throw new IllegalArgumentException("messages must be at least 1");
+		}
+		this.messages = messages;
+	}
+
+	public int getFileCount() {
+		return (messages + MESSAGES_PER_FILE - 1) / MESSAGES_PER_FILE;
+	}
+
+	/**
+	 * @return file content by path relative to the proto root, in import order
+	 */
+	public Map<String, String> generate() {
+		Map<String, String> files = new LinkedHashMap<>();
+		int fileCount = getFileCount();
+		for (int f = 0; f < fileCount; f++) {
+			int messagesInFile = Math.min(MESSAGES_PER_FILE, messages - f * MESSAGES_PER_FILE);
+			int messagesInPreviousFile = f > 0 ? MESSAGES_PER_FILE : 0;
+			files.put(path(f), file(f, messagesInFile, messagesInPreviousFile));
+		}
+		return files;
+	}
+
+	/**
+	 * Write all files below the given proto root
+	 */
+	public void write(File protoRoot) throws IOException {
+		for (Map.Entry<String, String> file : generate().entrySet()) {
+			File target = new File(protoRoot, file.getKey());
+			if (!target.getParentFile().mkdirs() && !target.getParentFile().isDirectory()) {
+				throw new IOException("Could not create directory " + target.getParentFile());
+			}
+			Files.write(target.toPath(), file.getValue().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * An identifier set as typically used with ModifyProto: a whole package, a handful of root messages, and excluded fields and types
+	 */
+	public IdentifierSet identifierSet() {
+		int fileCount = getFileCount();
+		int last = fileCount - 1;
+		IdentifierSet.Builder builder = new IdentifierSet.Builder();
+		builder.include(PACKAGE_PREFIX + "0.*");
+		for (int f = 0; f < fileCount; f += 2) {
+			builder.include(PACKAGE_PREFIX + f + ".Message0");
+		}
+		builder.include(PACKAGE_PREFIX + last + ".Message" + (Math.min(MESSAGES_PER_FILE, messages - last * MESSAGES_PER_FILE) - 1));
+		for (int f = 0; f < fileCount; f++) {
+			builder.exclude(PACKAGE_PREFIX + f + ".Message1#nested");
+			builder.exclude(PACKAGE_PREFIX + f + ".Message2#choice_text");
+		}
+		builder.exclude(PACKAGE_PREFIX + last + ".Message3");
+		return builder.build();
+	}
+
+	private String file(int f, int messagesInFile, int messagesInPreviousFile) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("syntax = \"proto3\";\n\n");
+		sb.append("package ").append(PACKAGE_PREFIX).append(f).append(";\n\n");
+		if (f > 0) {
+			sb.append("import \"").append(path(f - 1)).append("\";\n\n");
+		}
+		sb.append("option java_multiple_files = true;\n\n");
+
+		for (int m = 0; m < messagesInFile; m++) {
+			if (m % MESSAGES_PER_ENUM == 0) {
+				sb.append("// Status of messages ").append(m).append(" to ").append(m + MESSAGES_PER_ENUM - 1).append("\n");
+				sb.append("enum Status").append(m).append(" {\n");
+				sb.append("  STATUS").append(m).append("_UNSPECIFIED = 0;\n");
+				sb.append("  STATUS").append(m).append("_ACTIVE = 1;\n");
+				sb.append("  STATUS").append(m).append("_INACTIVE = 2;\n");
+				sb.append("}\n\n");
+			}
+
+			List<String> fields = new ArrayList<>();
+			fields.add("string name = 1;");
+			fields.add("int32 count = 2;");
+			fields.add("repeated int64 values = 3 [packed = true];");
+			fields.add("Status" + (m - m % MESSAGES_PER_ENUM) + " status = 4;");
+			if (m > 0) {
+				fields.add("Message" + (m - 1) + " previous = 5;");
+			}
+			if (messagesInPreviousFile > 0) {
+				fields.add("." + PACKAGE_PREFIX + (f - 1) + ".Message" + (m % messagesInPreviousFile) + " external = 6;");
+			}
+			fields.add("Nested nested = 7 [deprecated = true];");
+			fields.add("repeated string tags = 10;");
+
+			sb.append("// Synthetic message ").append(m).append(" in file ").append(f).append("\n");
+			sb.append("message Message").append(m).append(" {\n");
+			for (String field : fields) {
+				sb.append("  ").append(field).append("\n");
+			}
+			sb.append("  oneof choice {\n");
+			sb.append("    string choice_text = 8;\n");
+			sb.append("    double choice_amount = 9;\n");
+			sb.append("  }\n");
+			sb.append("  message Nested {\n");
+			sb.append("    string code = 1;\n");
+			sb.append("    bool flag = 2;\n");
+			sb.append("  }\n");
+			sb.append("}\n\n");
+		}
+		return sb.toString();
+	}
+
+	private static String path(int f) {
+		return "bench/pkg" + f + "/file" + f + ".proto";
+	}
+}
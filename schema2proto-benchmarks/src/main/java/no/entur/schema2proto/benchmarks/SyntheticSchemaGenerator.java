@@ -0,0 +1,263 @@
+/*-
+ * #%L
+ * schema2proto-benchmarks
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a synthetic XSD schema set. Each namespace is written to its own file and imports the previous namespace, and a root schema imports all of them.
+ * <p>
+ * The shape of the schema set is controlled by
+ * <ul>
+ * <li>{@link #complexTypes(int)} - total number of named complexTypes, spread evenly over the namespaces</li>
+ * <li>{@link #namespaces(int)} - number of target namespaces</li>
+ * <li>{@link #extensionDepth(int)} - length of xsd:extension chains on top of a common abstract base type</li>
+ * <li>{@link #substitutionGroupFanOut(int)} - number of global elements in each substitution group, 0 disables substitution groups</li>
+ * <li>{@link #anonymousLocalTypes(int)} - number of elements with an anonymous complexType per complexType</li>
+ * <li>{@link #repeatedGroups(int)} - number of unbounded choice/sequence groups per complexType</li>
+ * </ul>
+ */
+public class SyntheticSchemaGenerator {
+
+	static final String NAMESPACE_PREFIX = "http://www.entur.org/schema2proto/benchmark/ns";
+	static final String ROOT_SCHEMA_FILENAME = "root.xsd";
+
+	private int complexTypes = 100;
+	private int namespaces = 1;
+	private int extensionDepth = 0;
+	private int substitutionGroupFanOut = 0;
+	private int anonymousLocalTypes = 0;
+	private int repeatedGroups = 0;
+
+	public SyntheticSchemaGenerator complexTypes(int complexTypes) {
+		this.complexTypes = requireAtLeast(complexTypes, 1, "complexTypes");
+		return this;
+	}
+
+	public SyntheticSchemaGenerator namespaces(int namespaces) {
+		this.namespaces = requireAtLeast(namespaces, 1, "namespaces");
+		return this;
+	}
+
+	public SyntheticSchemaGenerator extensionDepth(int extensionDepth) {
+		this.extensionDepth = requireAtLeast(extensionDepth, 0, "extensionDepth");
+		return this;
+	}
+
+	public SyntheticSchemaGenerator substitutionGroupFanOut(int substitutionGroupFanOut) {
+		this.substitutionGroupFanOut = requireAtLeast(substitutionGroupFanOut, 0, "substitutionGroupFanOut");
+		return this;
+	}
+
+	public SyntheticSchemaGenerator anonymousLocalTypes(int anonymousLocalTypes) {
+		this.anonymousLocalTypes = requireAtLeast(anonymousLocalTypes, 0, "anonymousLocalTypes");
+		return this;
+	}
+
+	public SyntheticSchemaGenerator repeatedGroups(int repeatedGroups) {
+		this.repeatedGroups = requireAtLeast(repeatedGroups, 0, "repeatedGroups");
+		return this;
+	}
+
+	/**
+	 * A generator with the same shape but factor times as many complexTypes
+	 */
+	public SyntheticSchemaGenerator scaled(int factor) {
+		return new SyntheticSchemaGenerator().complexTypes(complexTypes * factor)
+				.namespaces(namespaces)
+				.extensionDepth(extensionDepth)
+				.substitutionGroupFanOut(substitutionGroupFanOut)
+				.anonymousLocalTypes(anonymousLocalTypes)
+				.repeatedGroups(repeatedGroups);
+	}
+
+	public int getComplexTypes() {
+		return complexTypes;
+	}
+
+	/**
+	 * Write the schema set to the given directory
+	 *
+	 * @return the root schema file importing all generated namespaces
+	 */
+	public File write(File directory) throws IOException {
+		if (!directory.mkdirs() && !directory.isDirectory()) {
+			throw new IOException("Could not create directory " + directory);
+		}
+
+		int typesPerNamespace = (complexTypes + namespaces - 1) / namespaces;
+		int previousTypesInNamespace = 0;
+		for (int ns = 0; ns < namespaces; ns++) {
+			int typesInNamespace = Math.max(1, Math.min(typesPerNamespace, complexTypes - ns * typesPerNamespace));
+			writeNamespace(directory, ns, typesInNamespace, previousTypesInNamespace);
+			previousTypesInNamespace = typesInNamespace;
+		}
+
+		File root = new File(directory, ROOT_SCHEMA_FILENAME);
+		try (PrintWriter w = new PrintWriter(root, StandardCharsets.UTF_8)) {
+			w.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+			w.println("<xsd:schema xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" targetNamespace=\"" + NAMESPACE_PREFIX + "root\">");
+			for (int ns = 0; ns < namespaces; ns++) {
+				w.println("  <xsd:import namespace=\"" + namespace(ns) + "\" schemaLocation=\"" + schemaFilename(ns) + "\"/>");
+			}
+			w.println("</xsd:schema>");
+		}
+		return root;
+	}
+
+	private void writeNamespace(File directory, int ns, int typesInNamespace, int typesInPreviousNamespace) throws IOException {
+		try (PrintWriter w = new PrintWriter(new File(directory, schemaFilename(ns)), StandardCharsets.UTF_8)) {
+			w.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+			w.print("<xsd:schema xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" xmlns:tns=\"" + namespace(ns) + "\"");
+			if (ns > 0) {
+				w.print(" xmlns:prev=\"" + namespace(ns - 1) + "\"");
+			}
+			w.println(" targetNamespace=\"" + namespace(ns) + "\" elementFormDefault=\"qualified\">");
+			if (ns > 0) {
+				w.println("  <xsd:import namespace=\"" + namespace(ns - 1) + "\" schemaLocation=\"" + schemaFilename(ns - 1) + "\"/>");
+			}
+
+			writeBaseType(w, ns);
+			for (int i = 0; i < typesInNamespace; i++) {
+				writeStatusEnum(w, i);
+				writeComplexType(w, ns, i, typesInNamespace, typesInPreviousNamespace);
+				writeGlobalElement(w, i);
+			}
+			if (substitutionGroupFanOut > 0) {
+				for (int group = 0; group * substitutionGroupFanOut < typesInNamespace; group++) {
+					w.println("  <xsd:element name=\"" + substitutionGroupHead(group) + "\" type=\"tns:BaseEntity\" abstract=\"true\"/>");
+				}
+			}
+			w.println("</xsd:schema>");
+		}
+	}
+
+	private void writeBaseType(PrintWriter w, int ns) {
+		w.println("  <xsd:complexType name=\"BaseEntity\" abstract=\"true\">");
+		w.println("    <xsd:annotation>");
+		w.println("      <xsd:documentation>Common base of all synthetic entities in namespace " + ns + "</xsd:documentation>");
+		w.println("    </xsd:annotation>");
+		w.println("    <xsd:sequence>");
+		w.println("      <xsd:element name=\"name\" type=\"xsd:string\"/>");
+		w.println("      <xsd:element name=\"validFrom\" type=\"xsd:dateTime\" minOccurs=\"0\"/>");
+		w.println("    </xsd:sequence>");
+		w.println("    <xsd:attribute name=\"id\" type=\"xsd:ID\"/>");
+		w.println("    <xsd:attribute name=\"version\" type=\"xsd:string\"/>");
+		w.println("  </xsd:complexType>");
+	}
+
+	private void writeStatusEnum(PrintWriter w, int i) {
+		w.println("  <xsd:simpleType name=\"Status" + i + "\">");
+		w.println("    <xsd:restriction base=\"xsd:string\">");
+		w.println("      <xsd:enumeration value=\"active\"/>");
+		w.println("      <xsd:enumeration value=\"inactive\"/>");
+		w.println("      <xsd:enumeration value=\"unknown\"/>");
+		w.println("    </xsd:restriction>");
+		w.println("  </xsd:simpleType>");
+	}
+
+	private void writeComplexType(PrintWriter w, int ns, int i, int typesInNamespace, int typesInPreviousNamespace) {
+		// Every (extensionDepth + 1)th type starts a new chain on top of BaseEntity, the others extend the previous type
+		boolean chainRoot = i % (extensionDepth + 1) == 0;
+		String base = chainRoot ? "tns:BaseEntity" : "tns:Entity" + (i - 1);
+
+		w.println("  <xsd:complexType name=\"Entity" + i + "\">");
+		w.println("    <xsd:annotation>");
+		w.println("      <xsd:documentation>Synthetic entity " + i + " in namespace " + ns + "</xsd:documentation>");
+		w.println("    </xsd:annotation>");
+		w.println("    <xsd:complexContent>");
+		w.println("      <xsd:extension base=\"" + base + "\">");
+		w.println("        <xsd:sequence>");
+		w.println("          <xsd:element name=\"count" + i + "\" type=\"xsd:int\" minOccurs=\"0\"/>");
+		w.println("          <xsd:element name=\"status" + i + "\" type=\"tns:Status" + i + "\"/>");
+		if (chainRoot && i > 0) {
+			w.println("          <xsd:element name=\"previous" + i + "\" type=\"tns:Entity" + (i - 1) + "\" minOccurs=\"0\"/>");
+		}
+		if (ns > 0) {
+			w.println("          <xsd:element name=\"external" + i + "\" type=\"prev:Entity" + (i % typesInPreviousNamespace) + "\" minOccurs=\"0\"/>");
+		}
+		if (substitutionGroupFanOut > 0) {
+			int group = ((i + 1) % typesInNamespace) / substitutionGroupFanOut;
+			w.println("          <xsd:element ref=\"tns:" + substitutionGroupHead(group) + "\" minOccurs=\"0\" maxOccurs=\"unbounded\"/>");
+		}
+		for (int j = 0; j < anonymousLocalTypes; j++) {
+			w.println("          <xsd:element name=\"detail" + i + "_" + j + "\" minOccurs=\"0\">");
+			w.println("            <xsd:complexType>");
+			w.println("              <xsd:sequence>");
+			w.println("                <xsd:element name=\"code\" type=\"xsd:string\"/>");
+			w.println("                <xsd:element name=\"amount\" type=\"xsd:decimal\" minOccurs=\"0\"/>");
+			w.println("              </xsd:sequence>");
+			w.println("              <xsd:attribute name=\"kind\">");
+			w.println("                <xsd:simpleType>");
+			w.println("                  <xsd:restriction base=\"xsd:string\">");
+			w.println("                    <xsd:enumeration value=\"primary\"/>");
+			w.println("                    <xsd:enumeration value=\"secondary\"/>");
+			w.println("                  </xsd:restriction>");
+			w.println("                </xsd:simpleType>");
+			w.println("              </xsd:attribute>");
+			w.println("            </xsd:complexType>");
+			w.println("          </xsd:element>");
+		}
+		for (int j = 0; j < repeatedGroups; j++) {
+			String compositor = j % 2 == 0 ? "choice" : "sequence";
+			w.println("          <xsd:" + compositor + " minOccurs=\"0\" maxOccurs=\"unbounded\">");
+			w.println("            <xsd:element name=\"text" + i + "_" + j + "\" type=\"xsd:string\"/>");
+			w.println("            <xsd:element name=\"number" + i + "_" + j + "\" type=\"xsd:long\"/>");
+			w.println("          </xsd:" + compositor + ">");
+		}
+		w.println("        </xsd:sequence>");
+		w.println("      </xsd:extension>");
+		w.println("    </xsd:complexContent>");
+		w.println("  </xsd:complexType>");
+	}
+
+	private void writeGlobalElement(PrintWriter w, int i) {
+		w.print("  <xsd:element name=\"Entity" + i + "\" type=\"tns:Entity" + i + "\"");
+		if (substitutionGroupFanOut > 0) {
+			w.print(" substitutionGroup=\"tns:" + substitutionGroupHead(i / substitutionGroupFanOut) + "\"");
+		}
+		w.println("/>");
+	}
+
+	private static String substitutionGroupHead(int group) {
+		return "AbstractEntity" + group;
+	}
+
+	private static String namespace(int ns) {
+		return NAMESPACE_PREFIX + ns;
+	}
+
+	private static String schemaFilename(int ns) {
+		return "ns" + ns + ".xsd";
+	}
+
+	private static int requireAtLeast(int value, int minimum, String name) {
+		if (value < minimum) {
+			throw new IllegalArgumentException(name + " must be at least " + minimum);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,163 @@
+/*-
+ * #%L
+ * schema2proto-benchmarks
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.squareup.wire.schema.Linker;
+import com.squareup.wire.schema.Location;
+import com.squareup.wire.schema.ProtoFile;
+import com.squareup.wire.schema.Schema;
+import com.squareup.wire.schema.SchemaLoader;
+import com.squareup.wire.schema.WireBenchmarkAccess;
+import com.squareup.wire.schema.internal.parser.ProtoFileElement;
+import com.squareup.wire.schema.internal.parser.ProtoParser;
+
+/**
+ * Benchmarks of the schema2proto-wire parse, load, link, prune and print path over generated proto trees, see {@link SyntheticProtoGenerator}.
+ * <p>
+ * Run with {@code java -jar schema2proto-benchmarks/target/benchmarks.jar WireBenchmark -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@State(Scope.Benchmark)
+public class WireBenchmark {
+
+	private static final String DESCRIPTOR_PROTO = "google/protobuf/descriptor.proto";
+
+	@Param({ "100", "1000", "10000" })
+	public int messages;
+
+	private File workDirectory;
+	private SyntheticProtoGenerator generator;
+	private Map<String, String> protoSources;
+	private List<ProtoFileElement> protoFileElements;
+	private Schema schema;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		generator = new SyntheticProtoGenerator(messages);
+		protoSources = generator.generate();
+
+		workDirectory = BenchmarkInputs.createWorkDirectory();
+		generator.write(workDirectory);
+
+		protoFileElements = new ArrayList<>();
+		protoFileElements.add(parseDescriptorProto());
+		protoFileElements.addAll(parse());
+
+		schema = load();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		BenchmarkInputs.deleteRecursively(workDirectory);
+	}
+
+	/**
+	 * ProtoParser.parse of all files from strings in memory
+	 */
+	@Benchmark
+	public List<ProtoFileElement> parse() {
+		List<ProtoFileElement> elements = new ArrayList<>(protoSources.size());
+		for (Map.Entry<String, String> source : protoSources.entrySet()) {
+			elements.add(ProtoParser.parse(Location.get(source.getKey()), source.getValue()));
+		}
+		return elements;
+	}
+
+	/**
+	 * SchemaLoader.load from disk, including reading, parsing and linking, as done by ProtoSerializer.parseWrittenFiles and ModifyProto
+	 */
+	@Benchmark
+	public Schema load() throws IOException {
+		SchemaLoader schemaLoader = new SchemaLoader();
+		schemaLoader.addSource(workDirectory);
+		return schemaLoader.load();
+	}
+
+	/**
+	 * Linker.link of already parsed files. Includes the conversion from parsed elements to ProtoFile as linking modifies the model.
+	 */
+	@Benchmark
+	public Schema link() {
+		List<ProtoFile> protoFiles = new ArrayList<>(protoFileElements.size());
+		for (ProtoFileElement element : protoFileElements) {
+			protoFiles.add(WireBenchmarkAccess.toProtoFile(element));
+		}
+		return new Linker(protoFiles).link();
+	}
+
+	/**
+	 * Schema.prune with an identifier set including a package, a set of root messages and excluding some fields and types
+	 */
+	@Benchmark
+	public Schema prune() {
+		return schema.prune(generator.identifierSet());
+	}
+
+	/**
+	 * ProtoFile.toSchema of all loaded files
+	 */
+	@Benchmark
+	public int toSchema() {
+		int length = 0;
+		for (ProtoFile protoFile : schema.protoFiles()) {
+			length += protoFile.toSchema().length();
+		}
+		return length;
+	}
+
+	private static ProtoFileElement parseDescriptorProto() throws IOException {
+		try (InputStream in = SchemaLoader.class.getResourceAsStream("/" + DESCRIPTOR_PROTO)) {
+			if (in == null) {
+				throw new IOException("Could not find " + DESCRIPTOR_PROTO + " on classpath");
+			}
+			return ProtoParser.parse(Location.get(DESCRIPTOR_PROTO), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+}
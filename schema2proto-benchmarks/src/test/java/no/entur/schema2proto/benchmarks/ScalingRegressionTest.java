@@ -0,0 +1,164 @@
+/*-
+ * #%L
+ * schema2proto-benchmarks
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.squareup.wire.schema.ProtoFile;
+
+import no.entur.schema2proto.generateproto.LocalType;
+import no.entur.schema2proto.generateproto.ProtoSerializer;
+import no.entur.schema2proto.generateproto.Schema2ProtoConfiguration;
+import no.entur.schema2proto.generateproto.SchemaParser;
+import no.entur.schema2proto.generateproto.TypeAndNameMapper;
+
+/**
+ * Guards against super-linear growth in {@link SchemaParser} and {@link ProtoSerializer}. The synthetic schema set is converted at 1x, 2x, 4x and 8x size and
+ * each doubling may at most grow cpu time and allocated bytes by the given factors. Linear code doubles, quadratic code quadruples.
+ */
+public class ScalingRegressionTest {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ScalingRegressionTest.class);
+
+	private static final int BASE_COMPLEX_TYPES = 150;
+	private static final int[] SCALE_FACTORS = { 1, 2, 4, 8 };
+	private static final int REPETITIONS = 3;
+
+	private static final double MAX_TIME_GROWTH_PER_DOUBLING = 3.0;
+	private static final double MAX_ALLOCATION_GROWTH_PER_DOUBLING = 2.6;
+
+	private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private static File workDirectory;
+	private static File[] xsdFiles;
+
+	@BeforeAll
+	public static void generateSchemas() throws IOException {
+		workDirectory = BenchmarkInputs.createWorkDirectory();
+		SyntheticSchemaGenerator generator = BenchmarkInputs.syntheticSchema().complexTypes(BASE_COMPLEX_TYPES);
+		xsdFiles = new File[SCALE_FACTORS.length];
+		for (int i = 0; i < SCALE_FACTORS.length; i++) {
+			xsdFiles[i] = generator.scaled(SCALE_FACTORS[i]).write(new File(workDirectory, "xsd" + SCALE_FACTORS[i]));
+		}
+	}
+
+	@AfterAll
+	public static void deleteSchemas() throws IOException {
+		BenchmarkInputs.deleteRecursively(workDirectory);
+	}
+
+	@Test
+	public void schemaParserScalesLinearly() throws Exception {
+		assertLinear("SchemaParser", configuration -> {
+			Measurement measurement = Measurement.start();
+			new SchemaParser(configuration).parse();
+			return measurement.stop();
+		});
+	}
+
+	@Test
+	public void protoSerializerScalesLinearly() throws Exception {
+		assertLinear("ProtoSerializer", configuration -> {
+			// The serializer modifies the model in place, so parse a new one for every run
+			SchemaParser schemaParser = new SchemaParser(configuration);
+			Map<String, ProtoFile> packageToProtoFileMap = schemaParser.parse();
+			List<LocalType> localTypes = schemaParser.getLocalTypes();
+
+			Measurement measurement = Measurement.start();
+			new ProtoSerializer(configuration, new TypeAndNameMapper(configuration)).serialize(packageToProtoFileMap, localTypes);
+			return measurement.stop();
+		});
+	}
+
+	private void assertLinear(String stage, Stage run) throws Exception {
+		// Warm up the JIT on the smallest input
+		for (int i = 0; i < REPETITIONS; i++) {
+			run.run(configuration(0));
+		}
+
+		Measurement[] measurements = new Measurement[SCALE_FACTORS.length];
+		for (int i = 0; i < SCALE_FACTORS.length; i++) {
+			for (int r = 0; r < REPETITIONS; r++) {
+				Measurement measurement = run.run(configuration(i));
+				measurements[i] = measurements[i] == null ? measurement : measurements[i].best(measurement);
+			}
+			LOGGER.info("{} at {}x: {} ms cpu, {} MB allocated", stage, SCALE_FACTORS[i], measurements[i].cpuNanos / 1_000_000,
+					measurements[i].allocatedBytes / (1024 * 1024));
+		}
+
+		for (int i = 1; i < SCALE_FACTORS.length; i++) {
+			double timeGrowth = (double) measurements[i].cpuNanos / measurements[i - 1].cpuNanos;
+			double allocationGrowth = (double) measurements[i].allocatedBytes / measurements[i - 1].allocatedBytes;
+			String step = String.format("%s from %dx to %dx", stage, SCALE_FACTORS[i - 1], SCALE_FACTORS[i]);
+
+			assertTrue(timeGrowth <= MAX_TIME_GROWTH_PER_DOUBLING,
+					String.format("%s grew cpu time by %.2f, more than %.2f", step, timeGrowth, MAX_TIME_GROWTH_PER_DOUBLING));
+			assertTrue(allocationGrowth <= MAX_ALLOCATION_GROWTH_PER_DOUBLING,
+					String.format("%s grew allocated bytes by %.2f, more than %.2f", step, allocationGrowth, MAX_ALLOCATION_GROWTH_PER_DOUBLING));
+		}
+	}
+
+	private Schema2ProtoConfiguration configuration(int scaleIndex) {
+		File xsdFile = xsdFiles[scaleIndex];
+		return BenchmarkInputs.configuration(xsdFile, new File(xsdFile.getParentFile().getParentFile(), "proto" + SCALE_FACTORS[scaleIndex]));
+	}
+
+	private interface Stage {
+		Measurement run(Schema2ProtoConfiguration configuration) throws Exception;
+	}
+
+	private static class Measurement {
+		private final long cpuNanos;
+		private final long allocatedBytes;
+
+		private Measurement(long cpuNanos, long allocatedBytes) {
+			this.cpuNanos = cpuNanos;
+			this.allocatedBytes = allocatedBytes;
+		}
+
+		static Measurement start() {
+			return new Measurement(THREAD_MX_BEAN.getCurrentThreadCpuTime(), THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()));
+		}
+
+		Measurement stop() {
+			Measurement end = start();
+			return new Measurement(end.cpuNanos - cpuNanos, end.allocatedBytes - allocatedBytes);
+		}
+
+		Measurement best(Measurement other) {
+			return new Measurement(Math.min(cpuNanos, other.cpuNanos), Math.min(allocatedBytes, other.allocatedBytes));
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering the conversion of one complexType to a message in {@link SchemaParser}. Nested events are emitted for base types and anonymous types
+ * processed on the way.
+ */
+@Name("no.entur.schema2proto.ProcessComplexType")
+@Label("Process Complex Type")
+@Description("Conversion of an xsd complexType to a proto message")
+@Category({ "schema2proto", "SchemaParser" })
+class ComplexTypeEvent extends jdk.jfr.Event {
+
+	@Label("Namespace")
+	String namespace;
+
+	@Label("Type Name")
+	@Description("Name of the complexType, or of the enclosing element for anonymous types")
+	String typeName;
+
+	@Label("File")
+	String file;
+}
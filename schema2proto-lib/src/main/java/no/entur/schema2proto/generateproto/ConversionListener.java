@@ -0,0 +1,49 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+/**
+ * Receives timing, allocation and size metrics after each phase of {@link SchemaParser} and each pass of {@link ProtoSerializer}. Set
+ * {@link Schema2ProtoConfiguration#conversionListener} to plug in a listener, or {@link Schema2ProtoConfiguration#profileFile} to write a
+ * {@link ConversionProfile}.
+ */
+@FunctionalInterface
+public interface ConversionListener {
+
+	ConversionListener NONE = metrics -> {
+	};
+
+	void phaseCompleted(PhaseMetrics metrics);
+
+	default ConversionListener andThen(ConversionListener other) {
+		if (this == NONE) {
+			return other;
+		} else if (other == NONE) {
+			return this;
+		}
+		return metrics -> {
+			phaseCompleted(metrics);
+			other.phaseCompleted(metrics);
+		};
+	}
+}
@@ -0,0 +1,79 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Collects the metrics of all phases of a conversion and writes them as a json report, see --profile
+ */
+public class ConversionProfile implements ConversionListener {
+
+	private final List<PhaseMetrics> phases = new ArrayList<>();
+
+	@Override
+	public synchronized void phaseCompleted(PhaseMetrics metrics) {
+		phases.add(metrics);
+	}
+
+	public synchronized List<PhaseMetrics> getPhases() {
+		return Collections.unmodifiableList(new ArrayList<>(phases));
+	}
+
+	public void write(File xsdFile, File profileFile) throws IOException {
+		Report report = new Report();
+		report.xsdFile = xsdFile != null ? xsdFile.getPath() : null;
+		report.phases = getPhases();
+		for (PhaseMetrics phase : report.phases) {
+			report.totalWallTimeNanos += phase.getWallTimeNanos();
+			report.totalAllocatedBytes += phase.getAllocatedBytes();
+		}
+
+		File parent = profileFile.getAbsoluteFile().getParentFile();
+		if (!parent.mkdirs() && !parent.exists()) {
+			throw new IOException("Could not create folder for profile file " + profileFile);
+		}
+
+		Gson gson = new GsonBuilder().setPrettyPrinting().create();
+		try (Writer writer = new FileWriter(profileFile)) {
+			gson.toJson(report, writer);
+		}
+	}
+
+	@SuppressWarnings("unused") // Serialized by gson
+	private static class Report {
+		private String xsdFile;
+		private long totalWallTimeNanos;
+		private long totalAllocatedBytes;
+		private List<PhaseMetrics> phases;
+	}
+}
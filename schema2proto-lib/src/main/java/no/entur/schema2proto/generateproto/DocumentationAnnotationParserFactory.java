@@ -0,0 +1,153 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.sun.xml.xsom.parser.AnnotationContext;
+import com.sun.xml.xsom.parser.AnnotationParser;
+import com.sun.xml.xsom.parser.AnnotationParserFactory;
+
+/**
+ * {@link AnnotationParserFactory} that only keeps the text of {@code <xs:documentation>} elements.
+ * <p>
+ * Instead of building a DOM per {@code <xs:annotation>}, character events are buffered while inside a documentation element and stored as a single String.
+ * Nested markup and {@code <xs:appinfo>} are ignored. The text kept for each documentation element is the last run of text directly inside it, as read from the
+ * DOM by earlier versions.
+ */
+public class DocumentationAnnotationParserFactory implements AnnotationParserFactory {
+
+	private static final String DOCUMENTATION = "documentation";
+
+	@Override
+	public AnnotationParser create() {
+		return new DocumentationAnnotationParser();
+	}
+
+	/**
+	 * Documentation texts of one schema component, in document order. Multiple annotations on the same component are combined.
+	 */
+	public static final class Documentation {
+
+		private final List<String> texts;
+
+		Documentation(List<String> texts) {
+			this.texts = texts;
+		}
+
+		/**
+		 * @return text of the last documentation element, or the first one if keepFirst is set. Empty if there is no such text
+		 */
+		public String getText(boolean keepFirst) {
+			String text = "";
+			for (String t : texts) {
+				if (t != null) {
+					text = t;
+				}
+				if (keepFirst) {
+					break;
+				}
+			}
+			return text;
+		}
+	}
+
+	private static class DocumentationAnnotationParser extends AnnotationParser {
+
+		private final List<String> texts = new ArrayList<>();
+
+		@Override
+		public ContentHandler getContentHandler(AnnotationContext context, String parentElementName, ErrorHandler errorHandler, EntityResolver entityResolver) {
+			return new DocumentationHandler(texts);
+		}
+
+		@Override
+		public Object getResult(Object existing) {
+			if (existing instanceof Documentation) {
+				List<String> combined = new ArrayList<>(((Documentation) existing).texts);
+				combined.addAll(texts);
+				return new Documentation(combined);
+			}
+			return new Documentation(texts);
+		}
+	}
+
+	private static class DocumentationHandler extends DefaultHandler {
+
+		// xs:annotation is at depth 1, its xs:documentation children at depth 2
+		private static final int DOCUMENTATION_DEPTH = 2;
+
+		private final List<String> texts;
+		private final StringBuilder buffer = new StringBuilder();
+
+		private int depth = 0;
+		private boolean inDocumentation = false;
+		private String lastText;
+
+		DocumentationHandler(List<String> texts) {
+			this.texts = texts;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			depth++;
+			if (inDocumentation) {
+				flushText();
+			} else if (depth == DOCUMENTATION_DEPTH && DOCUMENTATION.equals(localName)) {
+				inDocumentation = true;
+				lastText = null;
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			if (inDocumentation && depth == DOCUMENTATION_DEPTH) {
+				flushText();
+				texts.add(lastText);
+				inDocumentation = false;
+			}
+			depth--;
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (inDocumentation && depth == DOCUMENTATION_DEPTH) {
+				buffer.append(ch, start, length);
+			}
+		}
+
+		private void flushText() {
+			if (buffer.length() > 0) {
+				lastText = buffer.toString();
+				buffer.setLength(0);
+			}
+		}
+	}
+}
@@ -33,6 +33,18 @@ public class FieldPath {
 		this.fieldName = fieldName;
 	}
 
+	public String getPackageName() {
+		return packageName;
+	}
+
+	public String getMessageName() {
+		return messageName;
+	}
+
+	public String getFieldName() {
+		return fieldName;
+	}
+
 	public boolean matches(String packageName, String messageType, String fieldName) {
 		return this.packageName.equals(packageName) && this.messageName.equals(messageType) && this.fieldName.equals(fieldName);
 	}
@@ -22,27 +22,41 @@
  */
 package no.entur.schema2proto.generateproto;
 
+import java.io.Serializable;
+
 import com.squareup.wire.schema.Field;
 import com.squareup.wire.schema.MessageType;
 import com.sun.xml.xsom.XSComplexType;
 import com.sun.xml.xsom.XSComponent;
 
-public class LocalType {
-	XSComponent xsComponent;
+/**
+ * A message type generated for an anonymous xsd type, nested in the message of the type that declared it. The xsd component and the enclosing complex type are
+ * only compared by identity, which lets {@link SchemaModelCache} replace them with serializable keys.
+ */
+public class LocalType implements Serializable {
+	Object xsComponent;
 	MessageType localType;
 	MessageType enclosingType;
 	Field referencingField;
 	String targetPackage;
-	XSComplexType enclosingComplexType;
+	Object enclosingComplexType;
+	String enclosingComplexTypeName;
 
 	public LocalType(XSComponent xsComponent, MessageType localType, MessageType enclosingType, Field referencingField, String targetPackage,
 			XSComplexType enclosingComplexType) {
+		this(xsComponent, localType, enclosingType, referencingField, targetPackage, enclosingComplexType,
+				enclosingComplexType != null ? enclosingComplexType.getName() : null);
+	}
+
+	LocalType(Object xsComponent, MessageType localType, MessageType enclosingType, Field referencingField, String targetPackage, Object enclosingComplexType,
+			String enclosingComplexTypeName) {
 		this.xsComponent = xsComponent;
 		this.localType = localType;
 		this.enclosingType = enclosingType;
 		this.referencingField = referencingField;
 		this.targetPackage = targetPackage;
 		this.enclosingComplexType = enclosingComplexType;
+		this.enclosingComplexTypeName = enclosingComplexTypeName;
 	}
 
 }
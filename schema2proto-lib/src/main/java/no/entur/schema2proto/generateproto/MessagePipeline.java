@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.squareup.wire.schema.EnumType;
+import com.squareup.wire.schema.Field;
+import com.squareup.wire.schema.MessageType;
+import com.squareup.wire.schema.ProtoFile;
+import com.squareup.wire.schema.Type;
+
+/**
+ * Message and enum local passes that are applied in a single traversal of all types. Passes are applied in the order they are added, each to the messages at
+ * the nesting levels it covers. Since a pass only looks at one message at a time, the result is the same as running the passes one after another over all
+ * types.
+ */
+class MessagePipeline {
+
+	/**
+	 * Messages declared in a file and the messages nested directly within them
+	 */
+	static final int CHILD_MESSAGES = 1;
+
+	/**
+	 * Messages at any nesting level
+	 */
+	static final int ALL_MESSAGES = Integer.MAX_VALUE;
+
+	interface MessagePass {
+		/**
+		 * @param file                 the file the top level message is declared in
+		 * @param messageType          the message
+		 * @param fieldsAndOneOfFields fields and oneof fields of the message, computed once for all passes
+		 */
+		void apply(ProtoFile file, MessageType messageType, List<Field> fieldsAndOneOfFields);
+	}
+
+	private final List<MessagePass> messagePasses = new ArrayList<>();
+	private final List<Integer> maxDepths = new ArrayList<>();
+	private final List<Consumer<EnumType>> enumPasses = new ArrayList<>();
+
+	MessagePipeline add(int maxDepth, MessagePass pass) {
+		messagePasses.add(pass);
+		maxDepths.add(maxDepth);
+		return this;
+	}
+
+	/**
+	 * Adds a pass applied to enums at any nesting level
+	 */
+	MessagePipeline addEnumPass(Consumer<EnumType> pass) {
+		enumPasses.add(pass);
+		return this;
+	}
+
+	void run(Map<String, ProtoFile> packageToProtoFileMap) {
+		for (ProtoFile file : packageToProtoFileMap.values()) {
+			visit(file, file.types(), 0);
+		}
+	}
+
+	private void visit(ProtoFile file, List<Type> types, int depth) {
+		for (Type type : types) {
+			// Nested types first, as the separate passes did
+			visit(file, type.nestedTypes(), depth + 1);
+			if (type instanceof MessageType) {
+				MessageType mt = (MessageType) type;
+				List<Field> fields = mt.fieldsAndOneOfFields();
+				for (int i = 0; i < messagePasses.size(); i++) {
+					if (depth <= maxDepths.get(i)) {
+						messagePasses.get(i).apply(file, mt, fields);
+					}
+				}
+			} else if (type instanceof EnumType) {
+				for (Consumer<EnumType> pass : enumPasses) {
+					pass.accept((EnumType) type);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Ordered list of regex mappings where the first pattern matching the whole input is replaced. The patterns are combined into a single alternation so that
+ * finding the first match is one regex match rather than one per pattern, and results are cached per distinct input.
+ */
+class PatternMappings {
+
+	// Backreferences would refer to the wrong group and quoting could swallow the following patterns once the patterns are combined
+	private static final Pattern NOT_COMBINABLE = Pattern.compile("\\\\[1-9]|\\\\k<|\\\\Q");
+
+	private final Pattern[] patterns;
+	private final String[] replacements;
+
+	/**
+	 * All patterns as one alternation, or null if they cannot be combined
+	 */
+	private final Pattern combined;
+
+	/**
+	 * Group in {@link #combined} wrapping each pattern
+	 */
+	private final int[] groups;
+
+	private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+	PatternMappings(Map<Pattern, String> mappings) {
+		patterns = mappings.keySet().toArray(new Pattern[0]);
+		replacements = mappings.values().toArray(new String[0]);
+		groups = new int[patterns.length];
+		combined = combine();
+	}
+
+	private Pattern combine() {
+		if (patterns.length < 2) {
+			return null;
+		}
+		StringBuilder alternation = new StringBuilder();
+		int group = 1;
+		for (int i = 0; i < patterns.length; i++) {
+			Pattern p = patterns[i];
+			if (p.flags() != 0 || NOT_COMBINABLE.matcher(p.pattern()).find()) {
+				return null;
+			}
+			if (i > 0) {
+				alternation.append('|');
+			}
+			alternation.append('(').append(p.pattern()).append(')');
+			groups[i] = group;
+			group += p.matcher("").groupCount() + 1;
+		}
+		try {
+			return Pattern.compile(alternation.toString());
+		} catch (PatternSyntaxException e) {
+			// For instance the same named group in several patterns
+			return null;
+		}
+	}
+
+	/**
+	 * @return the input with the first matching mapping applied, or the input itself if no pattern matches
+	 */
+	String apply(String input) {
+		return cache.computeIfAbsent(input, this::map);
+	}
+
+	private String map(String input) {
+		int index = firstMatch(input);
+		if (index < 0) {
+			return input;
+		}
+		return patterns[index].matcher(input).replaceAll(replacements[index]);
+	}
+
+	private int firstMatch(String input) {
+		if (combined != null) {
+			Matcher m = combined.matcher(input);
+			if (m.matches()) {
+				for (int i = 0; i < groups.length; i++) {
+					if (m.start(groups[i]) != -1) {
+						return i;
+					}
+				}
+			}
+			return -1;
+		}
+		for (int i = 0; i < patterns.length; i++) {
+			if (patterns[i].matcher(input).matches()) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
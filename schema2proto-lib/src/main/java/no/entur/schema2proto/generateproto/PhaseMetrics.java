@@ -0,0 +1,71 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+public class PhaseMetrics {
+	private final String stage;
+	private final String phase;
+	private final long wallTimeNanos;
+	private final long allocatedBytes;
+	private final int nodeCount;
+
+	/**
+	 * @param stage          the class running the phase, ie SchemaParser or ProtoSerializer
+	 * @param phase          name of the phase or pass
+	 * @param wallTimeNanos  wall time spent in the phase
+	 * @param allocatedBytes bytes allocated by the converting thread during the phase, -1 if not supported by the JVM
+	 * @param nodeCount      number of schema components processed, or number of proto types and fields after a ProtoSerializer pass
+	 */
+	public PhaseMetrics(String stage, String phase, long wallTimeNanos, long allocatedBytes, int nodeCount) {
+		this.stage = stage;
+		this.phase = phase;
+		this.wallTimeNanos = wallTimeNanos;
+		this.allocatedBytes = allocatedBytes;
+		this.nodeCount = nodeCount;
+	}
+
+	public String getStage() {
+		return stage;
+	}
+
+	public String getPhase() {
+		return phase;
+	}
+
+	public long getWallTimeNanos() {
+		return wallTimeNanos;
+	}
+
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s.%s: %d ms, %d bytes, %d nodes", stage, phase, wallTimeNanos / 1_000_000, allocatedBytes, nodeCount);
+	}
+}
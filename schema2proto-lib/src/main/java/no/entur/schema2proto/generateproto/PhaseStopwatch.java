@@ -0,0 +1,96 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.IntSupplier;
+
+/**
+ * Measures wall time and allocated bytes of the current thread across one or more start/stop intervals and reports them as a phase to a
+ * {@link ConversionListener}. Does nothing when the listener is {@link ConversionListener#NONE}.
+ */
+class PhaseStopwatch {
+
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+	private static final boolean ALLOCATION_SUPPORTED = THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean
+			&& ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemorySupported()
+			&& ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemoryEnabled();
+
+	private final ConversionListener listener;
+	private final String stage;
+	private final boolean enabled;
+
+	private boolean running;
+	private long startNanos;
+	private long startAllocatedBytes;
+	private long wallTimeNanos;
+	private long allocatedBytes;
+
+	PhaseStopwatch(ConversionListener listener, String stage) {
+		this.listener = listener;
+		this.stage = stage;
+		this.enabled = listener != ConversionListener.NONE;
+	}
+
+	void start() {
+		if (enabled) {
+			running = true;
+			startAllocatedBytes = currentThreadAllocatedBytes();
+			startNanos = System.nanoTime();
+		}
+	}
+
+	void stop() {
+		if (running) {
+			wallTimeNanos += System.nanoTime() - startNanos;
+			allocatedBytes += currentThreadAllocatedBytes() - startAllocatedBytes;
+			running = false;
+		}
+	}
+
+	/**
+	 * Stop if running and report the accumulated intervals as a completed phase. The node count is only computed when a listener is present.
+	 */
+	void complete(String phase, IntSupplier nodeCount) {
+		if (enabled) {
+			complete(phase, nodeCount.getAsInt());
+		}
+	}
+
+	void complete(String phase, int nodeCount) {
+		if (enabled) {
+			stop();
+			listener.phaseCompleted(new PhaseMetrics(stage, phase, wallTimeNanos, ALLOCATION_SUPPORTED ? allocatedBytes : -1, nodeCount));
+			wallTimeNanos = 0;
+			allocatedBytes = 0;
+		}
+	}
+
+	private static long currentThreadAllocatedBytes() {
+		if (ALLOCATION_SUPPORTED) {
+			return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+}
@@ -48,6 +48,7 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -73,8 +74,6 @@ import com.squareup.wire.schema.SchemaLoader;
 import com.squareup.wire.schema.Type;
 import com.squareup.wire.schema.internal.parser.OptionElement;
 import com.squareup.wire.schema.internal.parser.OptionElement.Kind;
-import com.sun.xml.xsom.XSComplexType;
-import com.sun.xml.xsom.XSComponent;
 
 import no.entur.schema2proto.InvalidConfigurationException;
 import no.entur.schema2proto.compatibility.BackwardsCompatibilityCheckException;
@@ -89,6 +88,12 @@ public class ProtoSerializer {
 	private static final String[] PACKABLE_SCALAR_TYPES = new String[] { "int32", "int64", "uint32", "uint64", "sint32", "sint64", "bool" };
 	private static final Set<String> PACKABLE_SCALAR_TYPES_SET = new HashSet<>(Arrays.asList(PACKABLE_SCALAR_TYPES));
 
+	// Used to detect the case format of type names
+	private static final Pattern LOWER_CAMEL = Pattern.compile("([a-z]+[A-Z0-9]+\\w+)+");
+	private static final Pattern LOWER_CASE = Pattern.compile("[a-z]+");
+	private static final Pattern UPPER_CAMEL = Pattern.compile("([A-Z]+[a-z0-9]+\\w+)+");
+	private static final Pattern UPPER_CASE = Pattern.compile("[A-Z]+");
+
 	private Schema2ProtoConfiguration configuration;
 
 	private TypeAndNameMapper typeAndFieldNameMapper;
@@ -101,9 +106,17 @@ public class ProtoSerializer {
 
 	private ProtolockBackwardsCompatibilityChecker backwardsCompatibilityChecker;
 
+	private final ConversionListener conversionListener;
+
 	public ProtoSerializer(Schema2ProtoConfiguration configuration, TypeAndNameMapper marshaller) throws InvalidConfigurationException {
+		this(configuration, marshaller, configuration.conversionListener);
+	}
+
+	public ProtoSerializer(Schema2ProtoConfiguration configuration, TypeAndNameMapper marshaller, ConversionListener conversionListener)
+			throws InvalidConfigurationException {
 		this.configuration = configuration;
 		this.typeAndFieldNameMapper = marshaller;
+		this.conversionListener = conversionListener;
 		basicTypes.addAll(TypeRegistry.getBasicTypes());
 
 		if (configuration.outputDirectory != null) {
@@ -126,85 +139,89 @@ public class ProtoSerializer {
 
 	public void serialize(Map<String, ProtoFile> packageToProtoFileMap, List<LocalType> localTypes) throws InvalidXSDException, IOException {
 
+		PhaseStopwatch stopwatch = new PhaseStopwatch(conversionListener, "ProtoSerializer");
+
 		// Remove temporary generated name suffix
-		replaceGeneratedTypePlaceholder(packageToProtoFileMap, SchemaParser.GENERATED_NAME_PLACEHOLDER, SchemaParser.TYPE_SUFFIX);
+		runPass("replaceGeneratedTypePlaceholder", packageToProtoFileMap,
+				() -> replaceGeneratedTypePlaceholder(packageToProtoFileMap, SchemaParser.GENERATED_NAME_PLACEHOLDER, SchemaParser.TYPE_SUFFIX));
 
 		// Sort types in files
-		sortTypesInProtofile(packageToProtoFileMap);
+		runPass("sortTypesInProtofile", packageToProtoFileMap, () -> sortTypesInProtofile(packageToProtoFileMap));
 
 		// Reorganize reused embedded types into global types referenced from the
-		moveReusedLocalTypesToGlobal(packageToProtoFileMap, localTypes);
+		runPass("moveReusedLocalTypesToGlobal", packageToProtoFileMap, () -> moveReusedLocalTypesToGlobal(packageToProtoFileMap, localTypes));
 
 		// Remove unwanted fields
-		removeUnwantedFields(packageToProtoFileMap);
+		runPass("removeUnwantedFields", packageToProtoFileMap, () -> removeUnwantedFields(packageToProtoFileMap));
 
 		// Uppercase message names
-		uppercaseMessageNames(packageToProtoFileMap);
+		runPass("uppercaseMessageNames", packageToProtoFileMap, () -> uppercaseMessageNames(packageToProtoFileMap));
 
 		// Add options specified in config file
-		addConfigurationSpecifiedOptions(packageToProtoFileMap);
+		runPass("addConfigurationSpecifiedOptions", packageToProtoFileMap, () -> addConfigurationSpecifiedOptions(packageToProtoFileMap));
 
 		// Compute filenames based on package
-		computeFilenames(packageToProtoFileMap);
+		runPass("computeFilenames", packageToProtoFileMap, () -> computeFilenames(packageToProtoFileMap));
 
 		// Rewrite type information (replace xsd types with protobuf types/messages)
-		translateTypes(packageToProtoFileMap);
+		runPass("translateTypes", packageToProtoFileMap, () -> translateTypes(packageToProtoFileMap));
 
 		// Replace types with other. Opposed to translateTypes this method does not change MessageTypes, but only references from Fields
-		replaceTypes(packageToProtoFileMap);
+		runPass("replaceTypes", packageToProtoFileMap, () -> replaceTypes(packageToProtoFileMap));
 
 		// Compute imports
-		computeLocalImports(packageToProtoFileMap);
+		runPass("computeLocalImports", packageToProtoFileMap, () -> computeLocalImports(packageToProtoFileMap));
 
 		// Add imports specified in config file - IF they are actually in use
-		addConfigurationSpecifiedImports(packageToProtoFileMap);
+		runPass("addConfigurationSpecifiedImports", packageToProtoFileMap, () -> addConfigurationSpecifiedImports(packageToProtoFileMap));
 
 		// Find out if a file recursively imports itself
-		resolveRecursiveImports(packageToProtoFileMap);
-
-		// Handle cases where identical field name comes from both attribute and element (but with different case)
-		handleFieldNameCaseInsensitives(packageToProtoFileMap);
-
-		// Rename fields
-		translateFieldNames(packageToProtoFileMap);
-
-		// Combine field.packageName and field.Typename to field.packageName.typeName
-		moveFieldPackageNameToFieldTypeName(packageToProtoFileMap);
-
-		// Add leading '.' to field.elementType if applicable
-		addLeadingPeriodToElementType(packageToProtoFileMap);
-
-		// Adjust to naming standard
-		underscoreFieldNames(packageToProtoFileMap);
-
-		// Escape any field names identical to java reserved keywords
-		escapeReservedJavaKeywords(packageToProtoFileMap);
-
-		// Insert default value, prefix values and possibly escape values
-		updateEnumValues(packageToProtoFileMap);
-
-		// Add packed=true option to repeated enum or number fields
-		addPackedOptionToRepeatedFields(packageToProtoFileMap, true);
+		runPass("resolveRecursiveImports", packageToProtoFileMap, () -> resolveRecursiveImports(packageToProtoFileMap));
+
+		// Field and enum local rewrites, applied in a single traversal of all types. Types are not renamed from here on
+		TypeKindIndex typeKinds = new TypeKindIndex(packageToProtoFileMap);
+		Map<String, Set<String>> packagesByInnerSegment = getPackagesByInnerSegment(packageToProtoFileMap.keySet());
+		MessagePipeline rewrites = new MessagePipeline()
+				// Handle cases where identical field name comes from both attribute and element (but with different case)
+				.add(MessagePipeline.CHILD_MESSAGES, (file, mt, fields) -> handleFieldNameCaseInsensitives(fields))
+				// Rename fields
+				.add(MessagePipeline.CHILD_MESSAGES, (file, mt, fields) -> translateFieldNames(fields))
+				// Combine field.packageName and field.Typename to field.packageName.typeName
+				.add(MessagePipeline.ALL_MESSAGES, (file, mt, fields) -> moveFieldPackageNameToFieldTypeName(fields))
+				// Add leading '.' to field.elementType if applicable
+				.add(MessagePipeline.ALL_MESSAGES, (file, mt, fields) -> addLeadingPeriodToElementType(packagesByInnerSegment, fields))
+				// Adjust to naming standard
+				.add(MessagePipeline.ALL_MESSAGES, (file, mt, fields) -> underscoreFieldNames(fields))
+				// Escape any field names identical to java reserved keywords
+				.add(MessagePipeline.CHILD_MESSAGES, (file, mt, fields) -> escapeReservedJavaKeywords(fields))
+				// Add packed=true option to repeated enum or number fields
+				.add(MessagePipeline.CHILD_MESSAGES, (file, mt, fields) -> addPackedOptionToRepeatedFields(typeKinds, file, mt, true))
+				// Insert default value, prefix values and possibly escape values
+				.addEnumPass(this::updateEnum);
+		runPass("rewriteFieldsAndEnums", packageToProtoFileMap, () -> rewrites.run(packageToProtoFileMap));
 
 		// Add go_package options to all files
 		if (configuration.includeGoPackageOptions) {
-			includeGoPackageNameOptions(packageToProtoFileMap);
+			runPass("includeGoPackageNameOptions", packageToProtoFileMap, () -> includeGoPackageNameOptions(packageToProtoFileMap));
 		}
 
 		// Try to resolve some backward incompatibilities based on protolock
-		boolean possibleIncompatibilitiesDetected = false;
+		AtomicBoolean possibleIncompatibilitiesDetected = new AtomicBoolean(false);
 		if (configuration.protoLockFile != null) {
-			possibleIncompatibilitiesDetected = resolveBackwardIncompatibilities(packageToProtoFileMap);
+			runPass("resolveBackwardIncompatibilities", packageToProtoFileMap,
+					() -> possibleIncompatibilitiesDetected.set(resolveBackwardIncompatibilities(packageToProtoFileMap)));
 		}
 
 		// Sort fields by tag/id
-		sortFieldsByTag(packageToProtoFileMap);
+		MessagePipeline sortFields = new MessagePipeline().add(MessagePipeline.CHILD_MESSAGES, (file, mt, fields) -> sortFieldsByTag(mt));
+		runPass("sortFieldsByTag", packageToProtoFileMap, () -> sortFields.run(packageToProtoFileMap));
 
 		// Run included linker to detect problems
 		// link(packageToProtoFileMap);
 
 		// Collect all written proto files for later parsing
 		List<File> writtenProtoFiles = new ArrayList<>();
+		stopwatch.start();
 
 		if (configuration.outputFilename != null) {
 			if (packageToProtoFileMap.size() > 1) {
@@ -237,23 +254,59 @@ public class ProtoSerializer {
 			}
 		}
 
+		stopwatch.complete("writeFiles", writtenProtoFiles.size());
+
 		// Parse and verify written proto files
+		stopwatch.start();
 		parseWrittenFiles();
+		stopwatch.complete("parseWrittenFiles", writtenProtoFiles.size());
 
-		if (possibleIncompatibilitiesDetected && configuration.failIfRemovedFields) {
+		if (possibleIncompatibilitiesDetected.get() && configuration.failIfRemovedFields) {
 			throw new BackwardsCompatibilityCheckException(
 					"Possible backwards incompatibility detected. See previous log messages. Re-run with option failIfRemovedFields=false if this is ok");
 		}
 
 	}
 
-	private void sortFieldsByTag(Map<String, ProtoFile> packageToProtoFileMap) {
+	private void runPass(String name, Map<String, ProtoFile> packageToProtoFileMap, Runnable pass) {
+		SerializerPassEvent event = new SerializerPassEvent();
+		PhaseStopwatch stopwatch = new PhaseStopwatch(conversionListener, "ProtoSerializer");
+		event.begin();
+		stopwatch.start();
+		pass.run();
+		stopwatch.complete(name, () -> countNodes(packageToProtoFileMap));
+		event.end();
+		if (event.shouldCommit()) {
+			event.pass = name;
+			event.packages = String.join(",", packageToProtoFileMap.keySet());
+			event.commit();
+		}
+	}
+
+	/**
+	 * Number of types, including nested types, and fields in all files
+	 */
+	private int countNodes(Map<String, ProtoFile> packageToProtoFileMap) {
+		int count = 0;
 		for (ProtoFile file : packageToProtoFileMap.values()) {
-			messageTypes(file.types()).forEach(mt -> {
-				mt.nestedTypes().stream().filter(MessageType.class::isInstance).forEach(z -> sortFieldsByTag((MessageType) z));
-				sortFieldsByTag(mt);
-			});
+			count += countNodes(file.types());
 		}
+		return count;
+	}
+
+	private int countNodes(List<Type> types) {
+		int count = types.size();
+		for (Type type : types) {
+			if (type instanceof MessageType) {
+				MessageType mt = (MessageType) type;
+				count += mt.fields().size();
+				for (OneOf oneOf : mt.oneOfs()) {
+					count += oneOf.fields().size();
+				}
+			}
+			count += countNodes(type.nestedTypes());
+		}
+		return count;
 	}
 
 	private void sortFieldsByTag(MessageType mt) {
@@ -281,20 +334,11 @@ public class ProtoSerializer {
 
 	}
 
-	private void addPackedOptionToRepeatedFields(Map<String, ProtoFile> packageToProtoFileMap, boolean b) {
-		for (ProtoFile file : packageToProtoFileMap.values()) {
-			messageTypes(file.types()).forEach(mt -> {
-				messageTypes(mt.nestedTypes()).forEach(e -> addPackedOptionToRepeatedFields(packageToProtoFileMap, file, e, b));
-				addPackedOptionToRepeatedFields(packageToProtoFileMap, file, mt, b);
-			});
-		}
-	}
-
-	private void addPackedOptionToRepeatedFields(Map<String, ProtoFile> packageToProtoFileMap, ProtoFile protoFile, MessageType mt, boolean packed) {
+	private void addPackedOptionToRepeatedFields(TypeKindIndex typeKinds, ProtoFile protoFile, MessageType mt, boolean packed) {
 		mt.fields()
 				.stream()
 				.filter(e -> e.label() == Field.Label.REPEATED)
-				.filter(e -> isExposedToPackedBug(packageToProtoFileMap, protoFile, e))
+				.filter(e -> isExposedToPackedBug(typeKinds, protoFile, mt, e))
 				.forEach(e -> addPackedOption(e, packed));
 	}
 
@@ -303,16 +347,9 @@ public class ProtoSerializer {
 		f.options().getOptionElements().add(packedOptionElement);
 	}
 
-	private boolean isExposedToPackedBug(Map<String, ProtoFile> packageToProtoFileMap, ProtoFile protoFile, Field elementType) {
-		return PACKABLE_SCALAR_TYPES_SET.contains(elementType.getElementType()) || isEnum(elementType, protoFile, packageToProtoFileMap);
-	}
-
-	private boolean isEnum(Field elementType, ProtoFile protoFile, Map<String, ProtoFile> packageToProtoFileMap) {
-		String packageName = elementType.packageName();
-		if (packageName != null) {
-			protoFile = packageToProtoFileMap.get(packageName);
-		}
-		return protoFile.types().stream().filter(EnumType.class::isInstance).anyMatch(e -> ((EnumType) e).name().equals(elementType.getElementType()));
+	private boolean isExposedToPackedBug(TypeKindIndex typeKinds, ProtoFile protoFile, MessageType mt, Field elementType) {
+		return PACKABLE_SCALAR_TYPES_SET.contains(elementType.getElementType())
+				|| typeKinds.resolve(protoFile, mt, elementType.getElementType()) == TypeKindIndex.TypeKind.ENUM;
 	}
 
 	private void removeUnwantedFields(Map<String, ProtoFile> packageToProtoFileMap) {
@@ -380,9 +417,12 @@ public class ProtoSerializer {
 
 		List<Field> fieldsToRemove = new ArrayList<>();
 
-		for (Field field : fields) {
-			if (typeAndFieldNameMapper.ignoreOutputField(packageName, messageName, field.name())) {
-				fieldsToRemove.add(field);
+		Set<String> ignoredFields = typeAndFieldNameMapper.getIgnoredOutputFields(packageName, messageName);
+		if (!ignoredFields.isEmpty()) {
+			for (Field field : fields) {
+				if (ignoredFields.contains(field.name())) {
+					fieldsToRemove.add(field);
+				}
 			}
 		}
 
@@ -419,67 +459,88 @@ public class ProtoSerializer {
 		return packageName + "." + type.type().simpleName();
 	}
 
-	// Loads imported file and reads all qualified types
+	// Loads all custom imports through one schema and reads the qualified types of each
 	@NotNull
-	private List<String> getFullyQualifiedTypes(String pathName) {
-		List<String> typeNames = new ArrayList<>();
+	private Map<String, List<String>> getFullyQualifiedTypesOfCustomImports() {
+		Map<String, List<String>> typeNamesByImport = new HashMap<>();
+		if (configuration.customImports.isEmpty()) {
+			return typeNamesByImport;
+		}
+
+		for (String pathName : configuration.customImports) {
+			if (!customImportExists(pathName)) {
+				throw customImportNotFound(pathName);
+			}
+		}
+
+		Schema schema;
 		try {
-			for (String customImportLocation : configuration.customImportLocations) {
-				File path = new File(customImportLocation);
-				if (!path.exists()) {
-					throw new ConversionException("Custom import location " + customImportLocation + " does not exist");
-				} else {
-					File fileToImport = new File(path, pathName);
-					if (fileToImport.exists()) {
-						SchemaLoader schemaLoader = new SchemaLoader();
-						for (String importRootFolder : configuration.customImportLocations) {
-							schemaLoader.addSource(new File(importRootFolder).toPath());
-						}
-						schemaLoader.addProto(pathName);
-						Schema schema = schemaLoader.load();
-						ProtoFile customImportFile = schema.protoFile(pathName);
+			SchemaLoader schemaLoader = new SchemaLoader();
+			for (String importRootFolder : configuration.customImportLocations) {
+				schemaLoader.addSource(new File(importRootFolder).toPath());
+			}
+			for (String pathName : configuration.customImports) {
+				schemaLoader.addProto(pathName);
+			}
+			schema = schemaLoader.load();
+		} catch (IOException e) {
+			throw new ConversionException("Could not get packageName from custom imported files " + configuration.customImports, e);
+		}
 
-						for (Type type : customImportFile.types()) {
-							String qualifiedName = buildFullyQualifiedTypeName(customImportFile.packageName(), type);
-							typeNames.add(qualifiedName);
+		for (String pathName : configuration.customImports) {
+			ProtoFile customImportFile = schema.protoFile(pathName);
+			List<String> typeNames = new ArrayList<>();
+			for (Type type : customImportFile.types()) {
+				String qualifiedName = buildFullyQualifiedTypeName(customImportFile.packageName(), type);
+				typeNames.add(qualifiedName);
 
-							customTypeImportToProtoFile.put(qualifiedName, pathName);
-						}
-						break;
-					}
-				}
+				customTypeImportToProtoFile.put(qualifiedName, pathName);
 			}
 			if (typeNames.isEmpty()) {
-				throw new ConversionException("Custom import file " + pathName + " not found, looked in folders "
-						+ ReflectionToStringBuilder.toString(configuration.customImportLocations.toArray()));
+				throw customImportNotFound(pathName);
 			}
-
-		} catch (IOException e) {
-			throw new ConversionException("Could not get packageName from custom imported file " + pathName, e);
+			typeNamesByImport.put(pathName, typeNames);
 		}
 
-		return typeNames;
+		return typeNamesByImport;
+	}
+
+	private boolean customImportExists(String pathName) {
+		for (String customImportLocation : configuration.customImportLocations) {
+			File path = new File(customImportLocation);
+			if (!path.exists()) {
+				throw new ConversionException("Custom import location " + customImportLocation + " does not exist");
+			} else if (new File(path, pathName).exists()) {
+				return true;
+			}
+		}
+		return false;
+	}
 
+	private ConversionException customImportNotFound(String pathName) {
+		return new ConversionException("Custom import file " + pathName + " not found, looked in folders "
+				+ ReflectionToStringBuilder.toString(configuration.customImportLocations.toArray()));
 	}
 
 	private void replaceGeneratedTypePlaceholder(Map<String, ProtoFile> packageToProtoFileMap, String generatedRandomTypeSuffix, String newTypeSuffix) {
 
+		TypeReferenceIndex typeReferences = new TypeReferenceIndex(packageToProtoFileMap);
 		for (Entry<String, ProtoFile> protoFile : packageToProtoFileMap.entrySet()) {
-			replaceGeneratedTypePlaceholder(packageToProtoFileMap, generatedRandomTypeSuffix, newTypeSuffix, protoFile.getValue().types(),
+			replaceGeneratedTypePlaceholder(typeReferences, generatedRandomTypeSuffix, newTypeSuffix, protoFile.getValue().types(),
 					protoFile.getValue().packageName());
 		}
 	}
 
-	private void replaceGeneratedTypePlaceholder(Map<String, ProtoFile> packageToProtoFileMap, String generatedRandomTypePlaceholder, String newTypeSuffix,
+	private void replaceGeneratedTypePlaceholder(TypeReferenceIndex typeReferences, String generatedRandomTypePlaceholder, String newTypeSuffix,
 			List<Type> types, String packageName) {
 		Set<String> usedNames = findExistingTypeNamesInProtoFile(types);
 		for (Type type : types) {
 			// Recurse into nested types
-			replaceGeneratedTypePlaceholder(packageToProtoFileMap, generatedRandomTypePlaceholder, newTypeSuffix, type.nestedTypes(), packageName);
+			replaceGeneratedTypePlaceholder(typeReferences, generatedRandomTypePlaceholder, newTypeSuffix, type.nestedTypes(), packageName);
 
 			if (type instanceof MessageType) {
 				MessageType mt = (MessageType) type;
-				replaceGeneratedTypePlaceholder(packageToProtoFileMap, generatedRandomTypePlaceholder, newTypeSuffix, packageName, usedNames, mt);
+				replaceGeneratedTypePlaceholder(typeReferences, generatedRandomTypePlaceholder, newTypeSuffix, packageName, usedNames, mt);
 
 			} else if (type instanceof EnumType) {
 				EnumType et = (EnumType) type;
@@ -489,7 +550,7 @@ public class ProtoSerializer {
 					if (!usedNames.contains(newMessageName)) {
 						et.updateName(newMessageName);
 						usedNames.add(newMessageName);
-						updateTypeReferences(packageToProtoFileMap, packageName, messageName, newMessageName);
+						typeReferences.rename(packageName, messageName, newMessageName);
 					} else {
 						LOGGER.warn("Cannot rename enum {} to {} as type already exist! Renaming ignored", messageName, newMessageName);
 					}
@@ -498,7 +559,7 @@ public class ProtoSerializer {
 		}
 	}
 
-	private void replaceGeneratedTypePlaceholder(Map<String, ProtoFile> packageToProtoFileMap, String generatedRandomTypePlaceholder, String newTypeSuffix,
+	private void replaceGeneratedTypePlaceholder(TypeReferenceIndex typeReferences, String generatedRandomTypePlaceholder, String newTypeSuffix,
 			String packageName, Set<String> usedNames, MessageType mt) {
 		String messageName = mt.getName();
 		if (messageName.contains(generatedRandomTypePlaceholder)) {
@@ -506,7 +567,7 @@ public class ProtoSerializer {
 			if (!usedNames.contains(newMessageName)) {
 				mt.updateName(newMessageName);
 				usedNames.add(newMessageName);
-				updateTypeReferences(packageToProtoFileMap, packageName, messageName, newMessageName);
+				typeReferences.rename(packageName, messageName, newMessageName);
 			} else {
 				LOGGER.warn("Cannot rename message {} to {} as type already exist! Renaming ignored", messageName, newMessageName);
 			}
@@ -514,22 +575,23 @@ public class ProtoSerializer {
 	}
 
 	private void uppercaseMessageNames(Map<String, ProtoFile> packageToProtoFileMap) {
+		TypeReferenceIndex typeReferences = new TypeReferenceIndex(packageToProtoFileMap);
 		for (ProtoFile file : packageToProtoFileMap.values()) {
-			uppercaseMessageNames(packageToProtoFileMap, file.types(), file.packageName());
+			uppercaseMessageNames(typeReferences, file.types(), file.packageName());
 		}
 
 	}
 
-	private void uppercaseMessageNames(Map<String, ProtoFile> packageToProtoFileMap, List<Type> types, String packageName) {
+	private void uppercaseMessageNames(TypeReferenceIndex typeReferences, List<Type> types, String packageName) {
 		Set<String> usedNames = findExistingTypeNamesInProtoFile(types);
 		for (Type type : types) {
 			// Recurse into nested types
-			uppercaseMessageNames(packageToProtoFileMap, type.nestedTypes(), packageName);
+			uppercaseMessageNames(typeReferences, type.nestedTypes(), packageName);
 
 			if (type instanceof MessageType) {
 				MessageType mt = (MessageType) type;
 
-				uppercaseMessageNames(packageToProtoFileMap, packageName, usedNames, mt);
+				uppercaseMessageNames(typeReferences, packageName, usedNames, mt);
 			} else if (type instanceof EnumType) {
 				EnumType et = (EnumType) type;
 				String messageName = et.name();
@@ -545,7 +607,7 @@ public class ProtoSerializer {
 					if (!usedNames.contains(newMessageName)) {
 						et.updateName(newMessageName);
 						usedNames.add(newMessageName);
-						updateTypeReferences(packageToProtoFileMap, packageName, messageName, newMessageName);
+						typeReferences.rename(packageName, messageName, newMessageName);
 					} else {
 						LOGGER.warn("Cannot uppercase enum {} to {} as type already exist! Renaming ignored", messageName, newMessageName);
 					}
@@ -567,15 +629,15 @@ public class ProtoSerializer {
 			}
 		} else {
 			if (Character.isLowerCase(s.charAt(0))) {
-				if (s.matches("([a-z]+[A-Z0-9]+\\w+)+")) {
+				if (LOWER_CAMEL.matcher(s).matches()) {
 					return CaseFormat.LOWER_CAMEL;
-				} else if (s.matches("[a-z]+")) {
+				} else if (LOWER_CASE.matcher(s).matches()) {
 					return CaseFormat.LOWER_UNDERSCORE;
 				}
 			} else {
-				if (s.matches("([A-Z]+[a-z0-9]+\\w+)+")) {
+				if (UPPER_CAMEL.matcher(s).matches()) {
 					return CaseFormat.UPPER_CAMEL;
-				} else if (s.matches("[A-Z]+")) {
+				} else if (UPPER_CASE.matcher(s).matches()) {
 					return CaseFormat.UPPER_UNDERSCORE;
 				}
 			}
@@ -584,37 +646,20 @@ public class ProtoSerializer {
 		throw new IllegalArgumentException(String.format("Couldn't find the case format of the given string '%s'", s));
 	}
 
-	private void uppercaseMessageNames(Map<String, ProtoFile> packageToProtoFileMap, String packageName, Set<String> usedNames, MessageType mt) {
+	private void uppercaseMessageNames(TypeReferenceIndex typeReferences, String packageName, Set<String> usedNames, MessageType mt) {
 		String messageName = mt.getName();
 		if (!Character.isUpperCase(messageName.charAt(0))) {
 			String newMessageName = StringUtils.capitalize(messageName);
 			if (!usedNames.contains(newMessageName)) {
 				mt.updateName(newMessageName);
 				usedNames.add(newMessageName);
-				updateTypeReferences(packageToProtoFileMap, packageName, messageName, newMessageName);
+				typeReferences.rename(packageName, messageName, newMessageName);
 			} else {
 				LOGGER.warn("Cannot uppercase message {} to {} as type already exist! Renaming ignored", messageName, newMessageName);
 			}
 		}
 	}
 
-	private void updateEnumValues(Map<String, ProtoFile> packageToProtoFileMap) {
-		for (ProtoFile file : packageToProtoFileMap.values()) {
-			List<Type> types = file.types();
-			updateEnumValues(types);
-		}
-	}
-
-	private void updateEnumValues(List<Type> types) {
-		for (Type t : types) {
-			if (t instanceof EnumType) {
-				EnumType e = (EnumType) t;
-				updateEnum(e);
-			}
-			updateEnumValues(t.nestedTypes());
-		}
-	}
-
 	private void updateEnum(EnumType e) {
 		// add UNSPECIFIED value first
 		List<OptionElement> optionElementsUnspecified = new ArrayList<>();
@@ -669,7 +714,10 @@ public class ProtoSerializer {
 
 	}
 
-	private void parseWrittenFiles() throws IOException {
+	/**
+	 * Parse and link the proto files written to the configured output directory, failing if they are not valid
+	 */
+	public void parseWrittenFiles() throws IOException {
 		SchemaLoader schemaLoader = new SchemaLoader();
 
 		try {
@@ -800,22 +848,19 @@ public class ProtoSerializer {
 	}
 
 	private void addConfigurationSpecifiedImports(Map<String, ProtoFile> packageToProtoFileMap) {
+		Map<String, List<String>> qualifiedTypesByImport = packageToProtoFileMap.isEmpty() ? Collections.emptyMap() : getFullyQualifiedTypesOfCustomImports();
+
 		for (ProtoFile file : packageToProtoFileMap.values()) {
-			for (String customImport : configuration.customImports) {
-				boolean customImportInUse = false;
-
-				List<String> qualifiedTypes = getFullyQualifiedTypes(customImport);
-				typeloop: for (Type type : file.types()) {
-					for (String qualifiedType : qualifiedTypes) {
-						customImportInUse = isCustomImportInUseInNestedTypes(qualifiedType, type);
-						if (customImportInUse) {
-							break typeloop;
-						}
+			if (!configuration.customImports.isEmpty()) {
+				// Element types are compared ignoring case
+				Set<String> referencedTypes = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+				messageTypes(file.types()).forEach(mt -> collectReferencedTypes(mt, referencedTypes));
+
+				for (String customImport : configuration.customImports) {
+					if (qualifiedTypesByImport.get(customImport).stream().anyMatch(referencedTypes::contains)) {
+						file.imports().add(customImport);
 					}
 				}
-				if (customImportInUse) {
-					file.imports().add(customImport);
-				}
 			}
 
 			if (configuration.includeValidationRules) {
@@ -828,32 +873,14 @@ public class ProtoSerializer {
 		}
 	}
 
-	private boolean isCustomImportInUseInNestedTypes(String importPackage, Type type) {
-		AtomicBoolean customImportInUse = new AtomicBoolean(false);
-
-		if (type instanceof MessageType) {
-			for (Field field : ((MessageType) type).fieldsAndOneOfFields()) {
-				if (field.getElementType() != null && field.getElementType().equalsIgnoreCase(importPackage)) {
-					customImportInUse.set(true);
-				}
-			}
-			if (!customImportInUse.get()) {
-				messageTypes(type.nestedTypes()).forEach(mt -> {
-					for (Field field : ((MessageType) type).fieldsAndOneOfFields()) {
-						if (field.getElementType() != null && field.getElementType().equalsIgnoreCase(importPackage)) {
-							customImportInUse.set(true);
-						}
-					}
-					if (!customImportInUse.get()) {
-						customImportInUse.set(isCustomImportInUseInNestedTypes(importPackage, mt));
-					}
-
-				});
-
+	// Element types of all fields in the message and its nested messages
+	private void collectReferencedTypes(MessageType messageType, Set<String> referencedTypes) {
+		for (Field field : messageType.fieldsAndOneOfFields()) {
+			if (field.getElementType() != null) {
+				referencedTypes.add(field.getElementType());
 			}
 		}
-
-		return customImportInUse.get();
+		messageTypes(messageType.nestedTypes()).forEach(mt -> collectReferencedTypes(mt, referencedTypes));
 	}
 
 	private void computeLocalImports(Map<String, ProtoFile> packageToProtoFileMap) {
@@ -887,19 +914,7 @@ public class ProtoSerializer {
 		}
 	}
 
-	private void moveFieldPackageNameToFieldTypeName(Map<String, ProtoFile> packageToProtoFileMap) {
-		for (ProtoFile file : packageToProtoFileMap.values()) {
-			messageTypes(file.types()).forEach(this::moveFieldPackageNameToFieldTypeName);
-
-		}
-	}
-
-	// Recursively loops through all fields for all nested types
-	private void moveFieldPackageNameToFieldTypeName(MessageType messageType) {
-		messageTypes(messageType.nestedTypes()).forEach(this::moveFieldPackageNameToFieldTypeName);
-
-		List<Field> fields = messageType.fieldsAndOneOfFields();
-
+	private void moveFieldPackageNameToFieldTypeName(List<Field> fields) {
 		for (Field field : fields) {
 			String fieldPackageName = StringUtils.trimToNull(field.packageName());
 			if (fieldPackageName != null) {
@@ -912,42 +927,49 @@ public class ProtoSerializer {
 	/*
 	 * Adds leading '.' to field.elementType when needed. Ref.: https://developers.google.com/protocol-buffers/docs/proto3#packages-and-name-resolution
 	 */
-	private void addLeadingPeriodToElementType(Map<String, ProtoFile> packageToProtoFileMap) {
-		for (ProtoFile file : packageToProtoFileMap.values()) {
-			messageTypes(file.types()).forEach(mt -> {
-				// TODO must this be done for nested types as well or handled differently?
-				for (Field field : mt.fieldsAndOneOfFields()) {
-					String fieldElementType = StringUtils.trimToNull(field.getElementType());
-					if (fieldElementType != null && fieldElementType.contains(".")) {
-						for (String pkg : packageToProtoFileMap.keySet()) {
-							if (!fieldElementType.equals(pkg)) {
-								String rootFieldElementType = fieldElementType.split("\\.")[0];
-								if (pkg.contains("." + rootFieldElementType + ".")) {
-									// elementType should only be prepended when root-package of elementType matches a non-root package
-									field.updateElementType("." + fieldElementType);
-								}
-							}
-						}
-					}
+	private void addLeadingPeriodToElementType(Map<String, Set<String>> packagesByInnerSegment, List<Field> fields) {
+		for (Field field : fields) {
+			String fieldElementType = StringUtils.trimToNull(field.getElementType());
+			if (fieldElementType != null && fieldElementType.contains(".")) {
+				String rootFieldElementType = fieldElementType.substring(0, fieldElementType.indexOf('.'));
+				// elementType should only be prepended when root-package of elementType matches a non-root package
+				Set<String> packages = packagesByInnerSegment.get(rootFieldElementType);
+				if (packages != null && (packages.size() > 1 || !packages.contains(fieldElementType))) {
+					field.updateElementType("." + fieldElementType);
 				}
-			});
+			}
 		}
 	}
 
+	/*
+	 * Packages by each of their segments except the first and the last
+	 */
+	private Map<String, Set<String>> getPackagesByInnerSegment(Set<String> packageNames) {
+		Map<String, Set<String>> packagesByInnerSegment = new HashMap<>();
+		for (String packageName : packageNames) {
+			String[] segments = packageName.split("\\.", -1);
+			for (int i = 1; i < segments.length - 1; i++) {
+				packagesByInnerSegment.computeIfAbsent(segments[i], k -> new HashSet<>()).add(packageName);
+			}
+		}
+		return packagesByInnerSegment;
+	}
+
 	private void translateTypes(Map<String, ProtoFile> packageToProtoFileMap) {
+		TypeReferenceIndex typeReferences = new TypeReferenceIndex(packageToProtoFileMap);
 		for (ProtoFile file : packageToProtoFileMap.values()) {
-			translateTypes(packageToProtoFileMap, file.types(), file.packageName());
+			translateTypes(typeReferences, file.types(), file.packageName());
 		}
 	}
 
-	private void translateTypes(Map<String, ProtoFile> packageToProtoFileMap, List<Type> types, String packageName) {
+	private void translateTypes(TypeReferenceIndex typeReferences, List<Type> types, String packageName) {
 		if (!types.isEmpty()) {
 			Set<String> usedNames = findExistingTypeNamesInProtoFile(types);
 			for (Type type : types) {
 				if (type instanceof MessageType) {
 					MessageType mt = (MessageType) type;
 
-					translateTypes(packageToProtoFileMap, type.nestedTypes(), packageName);
+					translateTypes(typeReferences, type.nestedTypes(), packageName);
 
 					String messageName = mt.getName();
 					String newMessageName = typeAndFieldNameMapper.translateType(messageName);
@@ -956,7 +978,7 @@ public class ProtoSerializer {
 						if (!usedNames.contains(newMessageName)) {
 							mt.updateName(newMessageName);
 							usedNames.add(newMessageName);
-							updateTypeReferences(packageToProtoFileMap, packageName, messageName, newMessageName);
+							typeReferences.rename(packageName, messageName, newMessageName);
 						} else {
 							LOGGER.warn("Cannot rename message {} to {} as type already exist! Renaming ignored", messageName, newMessageName);
 						}
@@ -973,7 +995,7 @@ public class ProtoSerializer {
 						if (!usedNames.contains(newMessageName)) {
 							et.updateName(newMessageName);
 							usedNames.add(newMessageName);
-							updateTypeReferences(packageToProtoFileMap, packageName, messageName, newMessageName);
+							typeReferences.rename(packageName, messageName, newMessageName);
 						} else {
 							LOGGER.warn("Cannot rename enum {} to {} as type already exist! Renaming ignored", messageName, newMessageName);
 						}
@@ -1018,71 +1040,6 @@ public class ProtoSerializer {
 		}
 	}
 
-	private void updateTypeReferences(Map<String, ProtoFile> packageToProtoFileMap, String packageNameOfType, String oldName, String newName) {
-		for (ProtoFile file : packageToProtoFileMap.values()) {
-			updateTypeReferences(packageNameOfType, oldName, newName, file.types(), file.packageName());
-		}
-
-	}
-
-	private void updateTypeReferences(String packageNameOfType, String oldName, String newName, List<Type> types, String currentMessageTypePackage) {
-		for (Type type : types) {
-			updateTypeReferences(packageNameOfType, oldName, newName, type.nestedTypes(), currentMessageTypePackage);
-			if (type instanceof MessageType) {
-				MessageType mt = (MessageType) type;
-				updateTypeReferences(packageNameOfType, oldName, newName, mt, mt.fieldsAndOneOfFields(), currentMessageTypePackage);
-			}
-		}
-	}
-
-	private void updateTypeReferences(String packageNameOfType, String oldName, String newName, MessageType mt, Collection<Field> fields,
-			String currentMessageTypePackage) {
-		for (Field field : fields) {
-			if (samePackage(field.packageName(), packageNameOfType)) {
-				String fieldType = field.getElementType();
-				if (fieldType.equals(oldName)) {
-					field.updateElementType(newName);
-					LOGGER.debug("Updating field {} in type {} to {}", oldName, mt.getName(), newName);
-				}
-			}
-		}
-
-		Options options = mt.options();
-		// Avoid concurrent mod exception
-
-		List<OptionElement> listCopy = new ArrayList<>(options.getOptionElements());
-
-		listCopy.stream().filter(e -> e.getName().equals(MessageType.XSD_BASE_TYPE_MESSAGE_OPTION_NAME)).forEach(e -> {
-			String packageAndType = (String) e.getValue();
-			if (packageAndType.equals(".")) {
-				String packageName = packageAndType.substring(0, packageAndType.lastIndexOf('.'));
-				String messageName = packageAndType.substring(packageName.hashCode() + 1);
-
-				if (packageName.equals(packageAndType) && oldName.equals(messageName)) {
-					options.replaceOption(MessageType.XSD_BASE_TYPE_MESSAGE_OPTION_NAME,
-							new OptionElement(MessageType.XSD_BASE_TYPE_MESSAGE_OPTION_NAME, Kind.STRING, packageName + "." + newName, true));
-
-				}
-			} else if (currentMessageTypePackage.equals(packageNameOfType) && packageAndType.equals(oldName)) {
-				options.replaceOption(MessageType.XSD_BASE_TYPE_MESSAGE_OPTION_NAME,
-						new OptionElement(MessageType.XSD_BASE_TYPE_MESSAGE_OPTION_NAME, Kind.STRING, newName, true));
-			}
-
-		});
-	}
-
-	private boolean samePackage(String packageNameOfFile, String packageNameOfReferencedTypeInField) {
-		if (packageNameOfFile == null && packageNameOfReferencedTypeInField == null) {
-			return true;
-		} else if (packageNameOfFile == null) {
-			return false;
-		} else if (packageNameOfReferencedTypeInField == null) {
-			return false;
-		} else {
-			return packageNameOfFile.equals(packageNameOfReferencedTypeInField);
-		}
-	}
-
 	private Set<String> findExistingTypeNamesInProtoFile(List<Type> types) {
 		Set<String> existingTypeNames = new HashSet<>();
 		for (Type t : types) {
@@ -1096,18 +1053,6 @@ public class ProtoSerializer {
 		return existingTypeNames;
 	}
 
-	private void translateFieldNames(Map<String, ProtoFile> packageToProtoFileMap) {
-		for (ProtoFile file : packageToProtoFileMap.values()) {
-			messageTypes(file.types()).forEach(mt -> {
-				messageTypes(mt.nestedTypes()).forEach(e -> translateFieldNames(e.fieldsAndOneOfFields()));
-
-				translateFieldNames(mt.fieldsAndOneOfFields());
-
-			});
-
-		}
-	}
-
 	private void translateFieldNames(List<Field> fields) {
 		for (Field field : fields) {
 			String fieldName = field.name();
@@ -1116,20 +1061,6 @@ public class ProtoSerializer {
 		}
 	}
 
-	private void handleFieldNameCaseInsensitives(Map<String, ProtoFile> packageToProtoFileMap) {
-		for (ProtoFile file : packageToProtoFileMap.values()) {
-
-			messageTypes(file.types()).forEach(mt -> {
-
-				messageTypes(mt.nestedTypes()).forEach(e -> handleFieldNameCaseInsensitives(e.fieldsAndOneOfFields()));
-
-				handleFieldNameCaseInsensitives(mt.fieldsAndOneOfFields());
-
-			});
-
-		}
-	}
-
 	private void handleFieldNameCaseInsensitives(List<Field> fields) {
 		Set<String> fieldNamesUppercase = new HashSet<>();
 
@@ -1143,17 +1074,8 @@ public class ProtoSerializer {
 		}
 	}
 
-	private void underscoreFieldNames(Map<String, ProtoFile> packageToProtoFileMap) {
-		for (ProtoFile file : packageToProtoFileMap.values()) {
-			messageTypes(file.types()).forEach(this::underscoreFieldNames);
-		}
-	}
-
-	private void underscoreFieldNames(MessageType mt) {
-
-		messageTypes(mt.nestedTypes()).forEach(this::underscoreFieldNames);
-
-		for (Field field : mt.fieldsAndOneOfFields()) {
+	private void underscoreFieldNames(List<Field> fields) {
+		for (Field field : fields) {
 			String fieldName = field.name();
 			boolean startsWithUnderscore = fieldName.startsWith(UNDERSCORE);
 			boolean endsWithUnderscore = fieldName.endsWith(UNDERSCORE);
@@ -1178,21 +1100,100 @@ public class ProtoSerializer {
 
 	}
 
-	private void escapeReservedJavaKeywords(Map<String, ProtoFile> packageToProtoFileMap) {
-		for (ProtoFile file : packageToProtoFileMap.values()) {
-			messageTypes(file.types()).forEach(mt -> {
-				messageTypes(mt.nestedTypes()).forEach(this::escapeReservedJavaKeywords);
-				escapeReservedJavaKeywords(mt);
-			});
+	private void escapeReservedJavaKeywords(List<Field> fields) {
+		for (Field field : fields) {
+			String fieldName = field.name();
+			String newFieldName = typeAndFieldNameMapper.escapeFieldName(fieldName);
+			field.updateName(newFieldName);
+		}
+	}
 
+	/**
+	 * Fields and base_type options by the type they refer to, so that renaming a type only visits its references. Fields without a package name refer to basic
+	 * types and are never renamed. Built at the start of each renaming pass since the passes in between move and remove types and fields.
+	 */
+	private static class TypeReferenceIndex {
+		private final Map<String, Map<String, List<FieldReference>>> fieldsByPackageAndType = new HashMap<>();
+		private final Map<String, Map<String, List<MessageType>>> messagesByPackageAndBaseType = new HashMap<>();
+
+		TypeReferenceIndex(Map<String, ProtoFile> packageToProtoFileMap) {
+			for (ProtoFile file : packageToProtoFileMap.values()) {
+				add(file.types(), file.packageName());
+			}
+		}
+
+		private void add(List<Type> types, String packageName) {
+			for (Type type : types) {
+				add(type.nestedTypes(), packageName);
+				if (type instanceof MessageType) {
+					MessageType mt = (MessageType) type;
+					for (Field field : mt.fieldsAndOneOfFields()) {
+						if (field.packageName() != null) {
+							fieldsReferencing(field.packageName(), field.getElementType()).add(new FieldReference(field, mt));
+						}
+					}
+					// base_type options are only updated for renames within the package of the file
+					for (OptionElement option : mt.options().getOptionElements()) {
+						if (option.getName().equals(MessageType.XSD_BASE_TYPE_MESSAGE_OPTION_NAME)) {
+							List<MessageType> messages = messagesWithBaseType(packageName, (String) option.getValue());
+							if (!messages.contains(mt)) {
+								messages.add(mt);
+							}
+						}
+					}
+				}
+			}
+		}
+
+		private List<FieldReference> fieldsReferencing(String packageName, String typeName) {
+			return fieldsByPackageAndType.computeIfAbsent(packageName, k -> new HashMap<>()).computeIfAbsent(typeName, k -> new ArrayList<>());
+		}
+
+		private List<MessageType> messagesWithBaseType(String packageName, String typeName) {
+			return messagesByPackageAndBaseType.computeIfAbsent(packageName, k -> new HashMap<>()).computeIfAbsent(typeName, k -> new ArrayList<>());
+		}
+
+		/**
+		 * Updates all references to a renamed type
+		 */
+		void rename(String packageNameOfType, String oldName, String newName) {
+			Map<String, List<FieldReference>> fieldsByType = fieldsByPackageAndType.get(packageNameOfType);
+			List<FieldReference> fields = fieldsByType != null ? fieldsByType.remove(oldName) : null;
+			if (fields != null) {
+				for (FieldReference reference : fields) {
+					reference.field.updateElementType(newName);
+					LOGGER.debug("Updating field {} in type {} to {}", oldName, reference.messageType.getName(), newName);
+				}
+				fieldsReferencing(packageNameOfType, newName).addAll(fields);
+			}
+
+			Map<String, List<MessageType>> messagesByBaseType = messagesByPackageAndBaseType.get(packageNameOfType);
+			List<MessageType> messages = messagesByBaseType != null ? messagesByBaseType.remove(oldName) : null;
+			if (messages != null) {
+				for (MessageType mt : messages) {
+					Options options = mt.options();
+					// Avoid concurrent mod exception
+					List<OptionElement> listCopy = new ArrayList<>(options.getOptionElements());
+					listCopy.stream()
+							.filter(e -> e.getName().equals(MessageType.XSD_BASE_TYPE_MESSAGE_OPTION_NAME) && e.getValue().equals(oldName))
+							.forEach(e -> options.replaceOption(MessageType.XSD_BASE_TYPE_MESSAGE_OPTION_NAME,
+									new OptionElement(MessageType.XSD_BASE_TYPE_MESSAGE_OPTION_NAME, Kind.STRING, newName, true)));
+					List<MessageType> renamed = messagesWithBaseType(packageNameOfType, newName);
+					if (!renamed.contains(mt)) {
+						renamed.add(mt);
+					}
+				}
+			}
 		}
 	}
 
-	private void escapeReservedJavaKeywords(MessageType mt) {
-		for (Field field : mt.fieldsAndOneOfFields()) {
-			String fieldName = field.name();
-			String newFieldName = typeAndFieldNameMapper.escapeFieldName(fieldName);
-			field.updateName(newFieldName);
+	private static class FieldReference {
+		private final Field field;
+		private final MessageType messageType;
+
+		FieldReference(Field field, MessageType messageType) {
+			this.field = field;
+			this.messageType = messageType;
 		}
 	}
 
@@ -1215,11 +1216,11 @@ public class ProtoSerializer {
 			return Objects.hash(xsComponent, messageName, enclosingComplexType);
 		}
 
-		XSComponent xsComponent;
-		XSComplexType enclosingComplexType;
+		Object xsComponent;
+		Object enclosingComplexType;
 		String messageName;
 
-		public ComponentMessageWrapper(XSComponent xsComponent, XSComplexType enclosingComplexType, String messageName) {
+		public ComponentMessageWrapper(Object xsComponent, Object enclosingComplexType, String messageName) {
 			this.xsComponent = xsComponent;
 			this.enclosingComplexType = enclosingComplexType;
 			this.messageName = messageName;
@@ -1295,7 +1296,7 @@ public class ProtoSerializer {
 					String candidateName = currentComponent.messageName;
 
 					if (!usagesOtherComponentsSameTypeName.isEmpty()) {
-						Set<String> enclosingTypes = usagesThisComponent.stream().map(k -> k.enclosingComplexType.getName()).collect(Collectors.toSet());
+						Set<String> enclosingTypes = usagesThisComponent.stream().map(k -> k.enclosingComplexTypeName).collect(Collectors.toSet());
 						if (enclosingTypes.size() > 1) {
 							throw new IllegalArgumentException(String.format(
 									"Candidate enclosing types for %s are many - should be one %s. Cannot continue as conversion is not deterministic",
@@ -82,6 +82,11 @@ public class Schema2Proto {
 	private static final String OPTION_DERIVATION_BY_SUBSUMPTION = "derivationBySubsumption";
 	private static final String OPTION_INCLUDE_GO_PACKAGE_OPTIONS = "includeGoPackageOptions";
 	private static final String OPTION_GO_PACKAGE_SOURCE_PREFIX = "goPackageSourcePrefix";
+	private static final String OPTION_PROFILE = "profile";
+	private static final String OPTION_PARSER_THREADS = "parserThreads";
+	private static final String OPTION_CACHE_DIRECTORY = "cacheDirectory";
+	private static final String OPTION_XML_CATALOGS = "xmlCatalogs";
+	private static final String OPTION_CACHE_REFERENCED_DOCUMENTS = "cacheReferencedDocuments";
 	private static final Logger LOGGER = LoggerFactory.getLogger(Schema2Proto.class);
 	public static final String TRUE_FALSE = "true|false";
 
@@ -95,6 +100,9 @@ public class Schema2Proto {
 				CommandLineParser parser = new DefaultParser();
 				CommandLine cmd = parser.parse(commandLineOptions, args);
 				Schema2ProtoConfiguration configuration = getConfiguration(cmd);
+				if (cmd.hasOption(OPTION_PROFILE)) {
+					configuration.profileFile = new File(cmd.getOptionValue(OPTION_PROFILE));
+				}
 				parseAndSerialize(configuration);
 			} catch (InvalidConfigurationException | ParseException e) {
 				printUsage(commandLineOptions);
@@ -106,17 +114,44 @@ public class Schema2Proto {
 	}
 
 	public static void parseAndSerialize(Schema2ProtoConfiguration configuration) throws IOException, InvalidConfigurationException {
-		try {
-			SchemaParser xp = new SchemaParser(configuration);
+		ConversionListener conversionListener = configuration.conversionListener;
+		ConversionProfile profile = null;
+		if (configuration.profileFile != null) {
+			profile = new ConversionProfile();
+			conversionListener = conversionListener.andThen(profile);
+		}
 
-			LOGGER.info("Starting to parse {}", configuration.xsdFile);
-			Map<String, ProtoFile> packageToFiles = xp.parse();
-			List<LocalType> localTypes = xp.getLocalTypes();
+		try {
+			Map<String, ProtoFile> packageToFiles;
+			List<LocalType> localTypes;
+
+			SchemaModelCache cache = configuration.cacheDirectory != null ? new SchemaModelCache(configuration) : null;
+			SchemaModelCache.Model cachedModel = cache != null ? cache.load() : null;
+			if (cachedModel != null) {
+				LOGGER.info("No changes to {} since it was cached, skipping parsing", configuration.xsdFile);
+				packageToFiles = cachedModel.getPackageToProtoFileMap();
+				localTypes = cachedModel.getLocalTypes();
+			} else {
+				SchemaParser xp = new SchemaParser(configuration, conversionListener);
+
+				LOGGER.info("Starting to parse {}", configuration.xsdFile);
+				packageToFiles = xp.parse();
+				localTypes = xp.getLocalTypes();
+
+				if (cache != null) {
+					cache.store(xp.getDocumentSystemIds(), packageToFiles, localTypes);
+				}
+			}
 
 			TypeAndNameMapper pbm = new TypeAndNameMapper(configuration);
-			ProtoSerializer serializer = new ProtoSerializer(configuration, pbm);
+			ProtoSerializer serializer = new ProtoSerializer(configuration, pbm, conversionListener);
 			serializer.serialize(packageToFiles, localTypes);
 
+			if (profile != null) {
+				profile.write(configuration.xsdFile, configuration.profileFile);
+				LOGGER.info("Wrote conversion profile to {}", configuration.profileFile);
+			}
+
 			LOGGER.info("Done");
 		} catch (InvalidXSDException e) {
 			throw new ConversionException("Error converting xsdFile to proto", e);
@@ -278,6 +313,41 @@ public class Schema2Proto {
 				.desc("Source path to set as prefix for go_package options")
 				.required(false)
 				.build());
+		commandLineOptions.addOption(Option.builder()
+				.longOpt(OPTION_PROFILE)
+				.hasArg()
+				.argName("FILENAME")
+				.desc("write wall time, allocated bytes and node count per conversion phase to this json file")
+				.required(false)
+				.build());
+		commandLineOptions.addOption(Option.builder()
+				.longOpt(OPTION_PARSER_THREADS)
+				.hasArg()
+				.argName("N")
+				.desc("number of threads reading included and imported xsd files, defaults to 1")
+				.required(false)
+				.build());
+		commandLineOptions.addOption(Option.builder()
+				.longOpt(OPTION_CACHE_DIRECTORY)
+				.hasArg()
+				.argName("DIRECTORYNAME")
+				.desc("reuse the parsed xsd model from this folder when no xsd file has changed since the last conversion")
+				.required(false)
+				.build());
+		commandLineOptions.addOption(Option.builder()
+				.longOpt(OPTION_XML_CATALOGS)
+				.hasArg()
+				.argName("catalog1.xml,catalog2.xml,...")
+				.desc("OASIS XML catalogs used to resolve xsd imports and includes, ie to local copies")
+				.required(false)
+				.build());
+		commandLineOptions.addOption(Option.builder()
+				.longOpt(OPTION_CACHE_REFERENCED_DOCUMENTS)
+				.hasArg()
+				.argName(TRUE_FALSE)
+				.desc("keep imported and included xsd files in memory, read them only once per JVM. Defaults to false")
+				.required(false)
+				.build());
 		return commandLineOptions;
 	}
 
@@ -331,6 +401,15 @@ public class Schema2Proto {
 		}
 	}
 
+	/**
+	 * @throws InvalidConfigurationException if the number of xsd parser threads is less than one
+	 */
+	public static void validateParserThreads(int parserThreads) throws InvalidConfigurationException {
+		if (parserThreads < 1) {
+			throw new InvalidConfigurationException(OPTION_PARSER_THREADS);
+		}
+	}
+
 	public static void parseConfigurationFileIntoConfiguration(Schema2ProtoConfiguration configuration, InputStream in) throws InvalidConfigurationException {
 		Yaml yaml = new Yaml();
 		Schema2ProtoConfigFile configFile = yaml.loadAs(in, Schema2ProtoConfigFile.class);
@@ -373,6 +452,8 @@ public class Schema2Proto {
 		configuration.derivationBySubsumption = configFile.derivationBySubsumption;
 		configuration.includeGoPackageOptions = configFile.includeGoPackageOptions;
 		configuration.goPackageSourcePrefix = configFile.goPackageSourcePrefix;
+		validateParserThreads(configFile.parserThreads);
+		configuration.parserThreads = configFile.parserThreads;
 
 		Map<String, Object> options = configFile.options;
 		if (configFile.options != null) {
@@ -398,6 +479,14 @@ public class Schema2Proto {
 		}
 
 		configuration.failIfRemovedFields = configFile.failIfRemovedFields;
+
+		if (configFile.cacheDirectory != null) {
+			configuration.cacheDirectory = new File(configFile.cacheDirectory);
+		}
+		if (configFile.xmlCatalogs != null) {
+			configuration.xmlCatalogs.addAll(configFile.xmlCatalogs);
+		}
+		configuration.cacheReferencedDocuments = configFile.cacheReferencedDocuments;
 	}
 
 	private static Map<Pattern, String> parseRegexpKeyValue(Map<String, String> customTypeMappings) {
@@ -506,6 +595,21 @@ public class Schema2Proto {
 		if (cmd.hasOption(OPTION_GO_PACKAGE_SOURCE_PREFIX)) {
 			configuration.goPackageSourcePrefix = cmd.getOptionValue(OPTION_GO_PACKAGE_SOURCE_PREFIX);
 		}
+		if (cmd.hasOption(OPTION_PARSER_THREADS)) {
+			try {
+				configuration.parserThreads = Integer.parseInt(cmd.getOptionValue(OPTION_PARSER_THREADS));
+			} catch (NumberFormatException e) {
+				throw new InvalidConfigurationException(OPTION_PARSER_THREADS);
+			}
+			validateParserThreads(configuration.parserThreads);
+		}
+		if (cmd.hasOption(OPTION_CACHE_DIRECTORY)) {
+			configuration.cacheDirectory = new File(cmd.getOptionValue(OPTION_CACHE_DIRECTORY));
+		}
+		configuration.xmlCatalogs.addAll(parseCommaSeparatedStringValues(cmd, OPTION_XML_CATALOGS));
+		if (cmd.hasOption(OPTION_CACHE_REFERENCED_DOCUMENTS)) {
+			configuration.cacheReferencedDocuments = Boolean.parseBoolean(cmd.getOptionValue(OPTION_CACHE_REFERENCED_DOCUMENTS));
+		}
 
 		return configuration;
 	}
@@ -49,4 +49,8 @@ public class Schema2ProtoConfigFile {
 	public boolean derivationBySubsumption = false;
 	public boolean includeGoPackageOptions = false;
 	public String goPackageSourcePrefix;
+	public int parserThreads = 1;
+	public String cacheDirectory;
+	public List<String> xmlCatalogs;
+	public boolean cacheReferencedDocuments = false;
 }
@@ -56,4 +56,10 @@ public class Schema2ProtoConfiguration {
 	public boolean derivationBySubsumption = false;
 	public boolean includeGoPackageOptions = false;
 	public String goPackageSourcePrefix = null;
+	public int parserThreads = 1;
+	public File cacheDirectory = null;
+	public List<String> xmlCatalogs = new ArrayList<>();
+	public boolean cacheReferencedDocuments = false;
+	public File profileFile = null;
+	public ConversionListener conversionListener = ConversionListener.NONE;
 }
@@ -0,0 +1,147 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.catalog.CatalogFeatures;
+import javax.xml.catalog.CatalogManager;
+import javax.xml.catalog.CatalogResolver;
+
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Resolves the documents referenced by xsd include, import and redefine elements. Locations are first looked up in the configured OASIS XML catalogs, and can
+ * optionally be served from an in-memory cache shared by all conversions in the JVM.
+ * <p>
+ * XSOM passes the namespace of an import as public id, so catalogs may map either the namespace or the schema location. References not found in any catalog are
+ * resolved as usual.
+ * <p>
+ * Documents are resolved from several threads when parserThreads is above one, this class is thread safe.
+ */
+public class SchemaEntityResolver implements EntityResolver {
+
+	/** Document content by system id, shared by all conversions */
+	private static final Map<String, CachedDocument> DOCUMENTS = new ConcurrentHashMap<>();
+
+	private final CatalogResolver catalogResolver;
+	private final boolean cacheDocuments;
+
+	public SchemaEntityResolver(List<String> catalogs, boolean cacheDocuments) throws FileNotFoundException {
+		this.cacheDocuments = cacheDocuments;
+		if (catalogs.isEmpty()) {
+			catalogResolver = null;
+		} else {
+			URI[] catalogUris = new URI[catalogs.size()];
+			for (int i = 0; i < catalogUris.length; i++) {
+				File catalog = new File(catalogs.get(i));
+				if (!catalog.isFile()) {
+					throw new FileNotFoundException("XML catalog " + catalog.getAbsolutePath() + " does not exist");
+				}
+				catalogUris[i] = catalog.toURI();
+			}
+			// references not in any catalog are left to the default resolution
+			CatalogFeatures features = CatalogFeatures.builder().with(CatalogFeatures.Feature.RESOLVE, "continue").build();
+			catalogResolver = CatalogManager.catalogResolver(features, catalogUris);
+		}
+	}
+
+	@Override
+	public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
+		InputSource source = null;
+		if (catalogResolver != null) {
+			// catalogs are loaded lazily and the resolver is not documented to be thread safe
+			synchronized (catalogResolver) {
+				source = catalogResolver.resolveEntity(publicId, systemId);
+			}
+		}
+
+		String resolvedSystemId = source != null ? source.getSystemId() : systemId;
+		if (!cacheDocuments || resolvedSystemId == null) {
+			return source;
+		}
+
+		byte[] content;
+		try {
+			content = getContent(resolvedSystemId);
+		} catch (IllegalArgumentException | IOException e) {
+			// not a readable uri, leave it to the parser to report the problem as usual
+			return source;
+		}
+		InputSource cached = new InputSource(new ByteArrayInputStream(content));
+		cached.setSystemId(resolvedSystemId);
+		return cached;
+	}
+
+	private static byte[] getContent(String systemId) throws IOException {
+		URI uri = URI.create(systemId);
+		if ("file".equals(uri.getScheme())) {
+			// local files may be edited between conversions in the same JVM
+			Path path = Paths.get(uri);
+			BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			CachedDocument document = DOCUMENTS.get(systemId);
+			if (document == null || document.lastModified != attributes.lastModifiedTime().toMillis() || document.size != attributes.size()) {
+				document = new CachedDocument(Files.readAllBytes(path), attributes.lastModifiedTime().toMillis(), attributes.size());
+				DOCUMENTS.put(systemId, document);
+			}
+			return document.content;
+		}
+
+		CachedDocument document = DOCUMENTS.get(systemId);
+		if (document == null) {
+			try (InputStream in = new URL(systemId).openStream()) {
+				document = new CachedDocument(in.readAllBytes(), -1, -1);
+			}
+			// another thread may have read it in the meantime, the content is the same
+			DOCUMENTS.putIfAbsent(systemId, document);
+		}
+		return document.content;
+	}
+
+	private static class CachedDocument {
+		private final byte[] content;
+		private final long lastModified;
+		private final long size;
+
+		CachedDocument(byte[] content, long lastModified, long size) {
+			this.content = content;
+			this.lastModified = lastModified;
+			this.size = size;
+		}
+	}
+}
@@ -0,0 +1,370 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.squareup.wire.schema.ProtoFile;
+import com.sun.xml.xsom.parser.XSOMParser;
+
+/**
+ * Content addressed cache of the model produced by {@link SchemaParser}, stored in {@link Schema2ProtoConfiguration#cacheDirectory}.
+ * <p>
+ * A model is stored under the hash of the configuration and the bytes of every xsd document that was read to build it. For each configuration the list of
+ * documents of the last conversion is kept as well, so that a later conversion can compute the key and find the model without parsing anything. Any change to
+ * one of the documents gives a new key and thus a cache miss. The configuration hash includes a hash of the code of the parser, so a changed parser never reads
+ * a model produced by another version. Only the most recent model is kept for each configuration, entries of other configurations and older parser versions are
+ * never removed.
+ * <p>
+ * Problems reading or writing the cache are logged and never fail the conversion.
+ */
+public class SchemaModelCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SchemaModelCache.class);
+
+	/** Increment when the format of the cached model changes */
+	private static final int MODEL_FORMAT = 1;
+
+	private static final String DOCUMENTS_SUFFIX = ".documents";
+	private static final String MODEL_SUFFIX = ".model";
+
+	private static final ObjectInputFilter MODEL_FILTER = ObjectInputFilter.Config.createFilter(
+			"java.lang.*;java.util.*;java.math.*;com.google.common.collect.*;kotlin.**;com.squareup.wire.schema.**;no.entur.schema2proto.generateproto.*;!*");
+
+	private final Path cacheDirectory;
+	private final String configurationKey;
+
+	public SchemaModelCache(Schema2ProtoConfiguration configuration) {
+		this.cacheDirectory = configuration.cacheDirectory.toPath();
+		if (CodeVersion.HASH == null) {
+			LOGGER.warn("Not using schema model cache as the version of the parser code could not be determined");
+			this.configurationKey = null;
+		} else {
+			this.configurationKey = computeConfigurationKey(configuration);
+		}
+	}
+
+	/**
+	 * The model of a previous conversion with the same configuration, if none of its xsd documents have changed since.
+	 *
+	 * @return null if there is no such model
+	 */
+	public Model load() {
+		if (configurationKey == null) {
+			return null;
+		}
+		Path documentsFile = cacheDirectory.resolve(configurationKey + DOCUMENTS_SUFFIX);
+		if (!Files.isRegularFile(documentsFile)) {
+			return null;
+		}
+		try {
+			String contentKey = computeContentKey(Files.readAllLines(documentsFile, StandardCharsets.UTF_8));
+			if (contentKey == null) {
+				return null;
+			}
+			Path modelFile = cacheDirectory.resolve(modelFileName(contentKey));
+			if (!Files.isRegularFile(modelFile)) {
+				return null;
+			}
+			try (InputStream in = Files.newInputStream(modelFile);
+					ObjectInputStream objectIn = new ObjectInputStream(new BufferedInputStream(new GZIPInputStream(in)))) {
+				objectIn.setObjectInputFilter(MODEL_FILTER);
+				Model model = (Model) objectIn.readObject();
+				LOGGER.debug("Read xsd model from cache entry {}", modelFile);
+				return model;
+			}
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			LOGGER.warn("Ignoring unreadable schema model cache entry: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the model just produced by {@link SchemaParser}. Must be called before the model is handed to {@link ProtoSerializer}, which modifies it.
+	 *
+	 * @param documentSystemIds the documents read to build the model, see {@link SchemaParser#getDocumentSystemIds()}
+	 */
+	public void store(List<String> documentSystemIds, Map<String, ProtoFile> packageToProtoFileMap, List<LocalType> localTypes) {
+		if (configurationKey == null) {
+			return;
+		}
+		try {
+			String contentKey = computeContentKey(documentSystemIds);
+			if (contentKey == null) {
+				LOGGER.info("Not caching xsd model as not all documents were read from the file system");
+				return;
+			}
+			Files.createDirectories(cacheDirectory);
+
+			// the model must be in place before the document list refers to it
+			String modelFileName = modelFileName(contentKey);
+			writeAtomically(cacheDirectory.resolve(modelFileName), out -> {
+				try (ObjectOutputStream objectOut = new ObjectOutputStream(new BufferedOutputStream(new GZIPOutputStream(out)))) {
+					objectOut.writeObject(new Model(packageToProtoFileMap, withComponentKeys(localTypes)));
+				}
+			});
+			writeAtomically(cacheDirectory.resolve(configurationKey + DOCUMENTS_SUFFIX),
+					out -> out.write(String.join("\n", documentSystemIds).getBytes(StandardCharsets.UTF_8)));
+
+			removeOtherModels(modelFileName);
+		} catch (IOException e) {
+			LOGGER.warn("Could not write schema model cache entry: {}", e.getMessage());
+		}
+	}
+
+	private String modelFileName(String contentKey) {
+		return configurationKey + "." + contentKey + MODEL_SUFFIX;
+	}
+
+	/**
+	 * Removes models of earlier document contents for the same configuration, the document list no longer refers to them
+	 */
+	private void removeOtherModels(String modelFileName) throws IOException {
+		try (DirectoryStream<Path> models = Files.newDirectoryStream(cacheDirectory, configurationKey + ".*" + MODEL_SUFFIX)) {
+			for (Path model : models) {
+				if (!model.getFileName().toString().equals(modelFileName)) {
+					Files.deleteIfExists(model);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Local types refer to xsd components, which are only compared by identity. Replace them with keys that keep the identities across serialization.
+	 */
+	private static List<LocalType> withComponentKeys(List<LocalType> localTypes) {
+		Map<Object, ComponentKey> keys = new IdentityHashMap<>();
+		List<LocalType> result = new ArrayList<>(localTypes.size());
+		for (LocalType localType : localTypes) {
+			result.add(new LocalType(componentKey(keys, localType.xsComponent), localType.localType, localType.enclosingType, localType.referencingField,
+					localType.targetPackage, componentKey(keys, localType.enclosingComplexType), localType.enclosingComplexTypeName));
+		}
+		return result;
+	}
+
+	private static ComponentKey componentKey(Map<Object, ComponentKey> keys, Object component) {
+		return component == null ? null : keys.computeIfAbsent(component, k -> new ComponentKey());
+	}
+
+	private void writeAtomically(Path target, ContentWriter writer) throws IOException {
+		Path temp = Files.createTempFile(cacheDirectory, target.getFileName().toString(), ".tmp");
+		try {
+			try (OutputStream out = Files.newOutputStream(temp)) {
+				writer.write(out);
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * @return null if one of the documents is not a readable file
+	 */
+	private String computeContentKey(List<String> documentSystemIds) throws IOException {
+		MessageDigest digest = newDigest();
+		digest.update(configurationKey.getBytes(StandardCharsets.UTF_8));
+		for (String systemId : documentSystemIds) {
+			URI uri = URI.create(systemId);
+			if (!"file".equals(uri.getScheme())) {
+				return null;
+			}
+			Path document = Paths.get(uri);
+			if (!Files.isRegularFile(document)) {
+				return null;
+			}
+			byte[] content = Files.readAllBytes(document);
+			update(digest, systemId);
+			update(digest, Integer.toString(content.length));
+			digest.update(content);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static String computeConfigurationKey(Schema2ProtoConfiguration configuration) {
+		// everything SchemaParser reads from the configuration
+		MessageDigest digest = newDigest();
+		update(digest, "format=" + MODEL_FORMAT);
+		update(digest, "version=" + getLibraryVersion());
+		update(digest, "code=" + CodeVersion.HASH);
+		update(digest, "xsdFile=" + configuration.xsdFile.getAbsolutePath());
+		update(digest, "defaultProtoPackage=" + configuration.defaultProtoPackage);
+		update(digest, "forceProtoPackage=" + configuration.forceProtoPackage);
+		update(digest, "inheritanceToComposition=" + configuration.inheritanceToComposition);
+		update(digest, "includeMessageDocs=" + configuration.includeMessageDocs);
+		update(digest, "includeFieldDocs=" + configuration.includeFieldDocs);
+		update(digest, "includeSourceLocationInDoc=" + configuration.includeSourceLocationInDoc);
+		update(digest, "includeValidationRules=" + configuration.includeValidationRules);
+		update(digest, "skipEmptyTypeInheritance=" + configuration.skipEmptyTypeInheritance);
+		update(digest, "includeXsdOptions=" + configuration.includeXsdOptions);
+		update(digest, "derivationBySubsumption=" + configuration.derivationBySubsumption);
+		// catalogs decide which documents are read
+		for (String catalog : configuration.xmlCatalogs) {
+			Path catalogFile = Paths.get(catalog).toAbsolutePath();
+			update(digest, "xmlCatalog=" + catalogFile);
+			try {
+				digest.update(Files.readAllBytes(catalogFile));
+			} catch (IOException e) {
+				update(digest, "unreadable");
+			}
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is required to be supported by every JVM", e);
+		}
+	}
+
+	private static String getLibraryVersion() {
+		try (InputStream in = SchemaModelCache.class.getResourceAsStream("/META-INF/maven/no.entur/schema2proto-lib/pom.properties")) {
+			if (in != null) {
+				Properties properties = new Properties();
+				properties.load(in);
+				return properties.getProperty("version");
+			}
+		} catch (IOException e) {
+			LOGGER.debug("Could not read library version: {}", e.getMessage());
+		}
+		return null;
+	}
+
+	/**
+	 * Hash of the jars or class folders the parser code is loaded from. Snapshot builds share the library version, and the version is missing when running from
+	 * class folders.
+	 */
+	private static final class CodeVersion {
+		static final String HASH = compute();
+
+		private static String compute() {
+			Set<Path> locations = new LinkedHashSet<>();
+			for (Class<?> parserClass : new Class<?>[] { SchemaParser.class, XSOMParser.class, ProtoFile.class }) {
+				CodeSource codeSource = parserClass.getProtectionDomain().getCodeSource();
+				if (codeSource == null || codeSource.getLocation() == null) {
+					return null;
+				}
+				try {
+					locations.add(Paths.get(codeSource.getLocation().toURI()));
+				} catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+					LOGGER.debug("Unsupported code location {}: {}", codeSource.getLocation(), e.getMessage());
+					return null;
+				}
+			}
+
+			MessageDigest digest = newDigest();
+			try {
+				for (Path location : locations) {
+					if (Files.isDirectory(location)) {
+						List<Path> files;
+						try (Stream<Path> walk = Files.walk(location)) {
+							files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+						}
+						for (Path file : files) {
+							update(digest, location.relativize(file).toString());
+							digest.update(Files.readAllBytes(file));
+						}
+					} else {
+						digest.update(Files.readAllBytes(location));
+					}
+				}
+			} catch (IOException e) {
+				LOGGER.debug("Could not read parser code: {}", e.getMessage());
+				return null;
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		}
+	}
+
+	private interface ContentWriter {
+		void write(OutputStream out) throws IOException;
+	}
+
+	/**
+	 * Stands in for an xsd component of a {@link LocalType} in a cached model
+	 */
+	private static final class ComponentKey implements Serializable {
+	}
+
+	/**
+	 * The input of {@link ProtoSerializer#serialize(Map, List)}
+	 */
+	public static final class Model implements Serializable {
+		private final Map<String, ProtoFile> packageToProtoFileMap;
+		private final List<LocalType> localTypes;
+
+		Model(Map<String, ProtoFile> packageToProtoFileMap, List<LocalType> localTypes) {
+			this.packageToProtoFileMap = packageToProtoFileMap;
+			this.localTypes = localTypes;
+		}
+
+		public Map<String, ProtoFile> getPackageToProtoFileMap() {
+			return packageToProtoFileMap;
+		}
+
+		public List<LocalType> getLocalTypes() {
+			return localTypes;
+		}
+	}
+}
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -39,15 +40,13 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.SAXParserFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.w3c.dom.Text;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.Locator;
 import org.xml.sax.SAXException;
@@ -85,8 +84,8 @@ import com.sun.xml.xsom.XSSimpleType;
 import com.sun.xml.xsom.XSTerm;
 import com.sun.xml.xsom.XSType;
 import com.sun.xml.xsom.impl.ElementDecl;
+import com.sun.xml.xsom.parser.SchemaDocument;
 import com.sun.xml.xsom.parser.XSOMParser;
-import com.sun.xml.xsom.util.DomAnnotationParserFactory;
 
 public class SchemaParser implements ErrorHandler {
 
@@ -99,6 +98,19 @@ public class SchemaParser implements ErrorHandler {
 
 	private final Map<String, ProtoFile> packageToProtoFileMap = new TreeMap<>();
 
+	private final Map<String, TypeIndex> typeIndexPerPackage = new HashMap<>();
+
+	private final Map<MessageType, FieldIndex> fieldIndexPerMessageType = new IdentityHashMap<>();
+
+	private final Map<Type, String> packageNamePerType = new IdentityHashMap<>();
+
+	private final Map<XSSimpleType, String> fieldTypePerSimpleType = new IdentityHashMap<>();
+
+	private final Map<XSSimpleType, Boolean> listPerSimpleType = new IdentityHashMap<>();
+
+	private final Map<String, Location> documentLocationPerSystemId = new HashMap<>();
+	private URI xsdBaseUri;
+
 	private final Map<MessageType, Set<Object>> elementDeclarationsPerMessageType = new HashMap<>();
 	private Set<String> basicTypes;
 
@@ -106,10 +118,14 @@ public class SchemaParser implements ErrorHandler {
 
 	private final List<LocalType> localTypes = new ArrayList<>();
 
+	private final List<String> documentSystemIds = new ArrayList<>();
+
 	private final Schema2ProtoConfiguration configuration;
 
 	private ValidationRuleFactory ruleFactory;
 
+	private final ConversionListener conversionListener;
+
 	private void init() {
 		basicTypes = new TreeSet<>();
 		basicTypes.addAll(TypeRegistry.getBasicTypes());
@@ -118,7 +134,12 @@ public class SchemaParser implements ErrorHandler {
 	}
 
 	public SchemaParser(Schema2ProtoConfiguration configuration) {
+		this(configuration, configuration.conversionListener);
+	}
+
+	public SchemaParser(Schema2ProtoConfiguration configuration, ConversionListener conversionListener) {
 		this.configuration = configuration;
+		this.conversionListener = conversionListener;
 		init();
 	}
 
@@ -130,11 +151,34 @@ public class SchemaParser implements ErrorHandler {
 
 		XSOMParser parser = new XSOMParser(saxParserFactory);
 		parser.setErrorHandler(this);
+		parser.setParallelism(configuration.parserThreads);
+
+		if (!configuration.xmlCatalogs.isEmpty() || configuration.cacheReferencedDocuments) {
+			parser.setEntityResolver(new SchemaEntityResolver(configuration.xmlCatalogs, configuration.cacheReferencedDocuments));
+		}
+
+		if (configuration.includeMessageDocs || configuration.includeFieldDocs) {
+			parser.setAnnotationParser(new DocumentationAnnotationParserFactory());
+		}
+		// else XSOM falls back to a no-op annotation parser and annotations are never materialised
 
-		parser.setAnnotationParser(new DomAnnotationParserFactory());
+		PhaseStopwatch stopwatch = new PhaseStopwatch(conversionListener, "SchemaParser");
+		stopwatch.start();
 		parser.parse(configuration.xsdFile);
+		stopwatch.complete("parseDocuments", () -> parser.getDocuments().size());
 
-		processSchemaSet(parser.getResult());
+		stopwatch.start();
+		XSSchemaSet schemaSet = parser.getResult();
+		stopwatch.complete("buildSchemaSet", () -> schemaSet.getSchemas().size());
+
+		for (SchemaDocument document : parser.getDocuments()) {
+			// XSOM's own built-in datatypes document is not read from the input
+			if (!XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(document.getTargetNamespace())) {
+				documentSystemIds.add(document.getSystemId());
+			}
+		}
+
+		processSchemaSet(schemaSet);
 
 		return packageToProtoFileMap;
 	}
@@ -142,6 +186,8 @@ public class SchemaParser implements ErrorHandler {
 	private void addType(String namespace, Type type) {
 		ProtoFile file = getProtoFileForNamespace(namespace);
 		file.types().add(type);
+		getTypeIndex(file).add(type);
+		packageNamePerType.put(type, file.packageName());
 	}
 
 	private ProtoFile getProtoFileForPackage(String packageName) {
@@ -164,33 +210,102 @@ public class SchemaParser implements ErrorHandler {
 
 	private Type getType(String namespace, String typeName) {
 		ProtoFile protoFileForNamespace = getProtoFileForNamespace(namespace);
-		for (Type type : protoFileForNamespace.types()) {
-			if (type instanceof MessageType) {
-				if (((MessageType) type).getName().equals(typeName)) {
-					return type;
+		return getTypeIndex(protoFileForNamespace).get(typeName);
+	}
+
+	private TypeIndex getTypeIndex(ProtoFile file) {
+		return typeIndexPerPackage.computeIfAbsent(file.packageName(), k -> new TypeIndex(file));
+	}
+
+	private static String getTypeName(Type type) {
+		if (type instanceof MessageType) {
+			return ((MessageType) type).getName();
+		} else if (type instanceof EnumType) {
+			return ((EnumType) type).name();
+		}
+		return null;
+	}
+
+	/**
+	 * Top level message and enum types of a file by name. If several types share a name the first one in the file wins, as with a scan of the type list. The
+	 * index is rebuilt when types were added to the file without going through addType, or when a hit turns out to have been renamed since it was indexed. Top
+	 * level types are only renamed by ProtoSerializer, after parsing is done.
+	 */
+	private static class TypeIndex {
+		private final ProtoFile file;
+		private final Map<String, Type> typesByName = new HashMap<>();
+		private int indexedTypes;
+
+		TypeIndex(ProtoFile file) {
+			this.file = file;
+			rebuild();
+		}
+
+		void add(Type type) {
+			if (indexedTypes == file.types().size() - 1) {
+				indexedTypes++;
+				String name = getTypeName(type);
+				if (name != null) {
+					typesByName.putIfAbsent(name, type);
 				}
-			} else if (type instanceof EnumType && ((EnumType) type).name().equals(typeName)) {
-				return type;
+			} else {
+				rebuild();
 			}
 		}
 
-		return null;
+		Type get(String typeName) {
+			if (indexedTypes != file.types().size()) {
+				rebuild();
+			}
+			Type type = typesByName.get(typeName);
+			if (type != null && !typeName.equals(getTypeName(type))) {
+				rebuild();
+				type = typesByName.get(typeName);
+			}
+			return type;
+		}
+
+		private void rebuild() {
+			typesByName.clear();
+			for (Type type : file.types()) {
+				String name = getTypeName(type);
+				if (name != null) {
+					typesByName.putIfAbsent(name, type);
+				}
+			}
+			indexedTypes = file.types().size();
+		}
 	}
 
 	private void processSchemaSet(XSSchemaSet schemaSet) {
 
+		PhaseStopwatch simpleTypesStopwatch = new PhaseStopwatch(conversionListener, "SchemaParser");
+		PhaseStopwatch complexTypesStopwatch = new PhaseStopwatch(conversionListener, "SchemaParser");
+		PhaseStopwatch elementsStopwatch = new PhaseStopwatch(conversionListener, "SchemaParser");
+		int simpleTypeCount = 0;
+		int complexTypeCount = 0;
+		int elementCount = 0;
+
 		Iterator<XSSchema> schemas = schemaSet.iterateSchema();
 		while (schemas.hasNext()) {
 			XSSchema schema = schemas.next();
 			if (!schema.getTargetNamespace().endsWith("/XMLSchema")) {
 
+				simpleTypesStopwatch.start();
 				final Map<String, XSSimpleType> sortedSimpleTypes = new TreeMap<>(schema.getSimpleTypes());
 				sortedSimpleTypes.forEach((name, type) -> processSimpleType(type, null));
+				simpleTypesStopwatch.stop();
+				simpleTypeCount += sortedSimpleTypes.size();
 
+				complexTypesStopwatch.start();
 				final Map<String, XSComplexType> sortedComplexTypes = new TreeMap<>(schema.getComplexTypes());
 				sortedComplexTypes.forEach((name, type) -> processComplexType(type, null, schemaSet, null, null));
+				complexTypesStopwatch.stop();
+				complexTypeCount += sortedComplexTypes.size();
 
+				elementsStopwatch.start();
 				final Map<String, XSElementDecl> sortedElements = new TreeMap<>(schema.getElementDecls());
+				elementCount += sortedElements.size();
 				for (XSElementDecl elementDecl : sortedElements.values()) {
 					if (elementDecl.getType().isLocal()) {
 						processElement(elementDecl, schemaSet);
@@ -198,8 +313,13 @@ public class SchemaParser implements ErrorHandler {
 						LOGGER.debug("Skipping global element {} declaration with global type {}", elementDecl.getName(), elementDecl.getType().getName());
 					}
 				}
+				elementsStopwatch.stop();
 			}
 		}
+
+		simpleTypesStopwatch.complete("processSimpleTypes", simpleTypeCount);
+		complexTypesStopwatch.complete("processComplexTypes", complexTypeCount);
+		elementsStopwatch.complete("processElements", elementCount);
 	}
 
 	private String processElement(XSElementDecl element, XSSchemaSet schemaSet) {
@@ -260,22 +380,23 @@ public class SchemaParser implements ErrorHandler {
 
 		// Verify with protolock that field number is not already used for a different field
 
+		FieldIndex fieldIndex = fieldIndexPerMessageType.computeIfAbsent(message, FieldIndex::new);
+
 		// Remove old fields of same type (element or attribute)
-		Field existingField = null;
-		for (Field f : message.fieldsAndOneOfFields()) {
-			if (newField.name().equals(f.name())) {
-				existingField = f;
-				break;
-			}
-		}
-		if (existingField != null) {
+		IndexedField existing = fieldIndex.first(newField.name());
+		if (existing != null) {
+			Field existingField = existing.field;
 			// Override should happen
 			if (existingField.isFromAttribute() && !newField.isFromAttribute()) {
+				String oldName = existingField.name();
 				existingField.updateName("attr_" + existingField.name());
+				fieldIndex.renamed(existingField, oldName);
 			} else if (!existingField.isFromAttribute() && newField.isFromAttribute()) {
 				newField.updateName("attr_" + newField.name());
-			} else {
+			} else if (!existing.inOneOf) {
+				// Fields in oneOfs are left in place
 				message.removeDeclaredField(existingField);
+				fieldIndex.remove(existingField);
 			}
 		}
 
@@ -284,6 +405,89 @@ public class SchemaParser implements ErrorHandler {
 		} else {
 			message.addField(newField);
 		}
+		fieldIndex.add(newField, oneOf != null);
+	}
+
+	/**
+	 * Fields of a message by name, answering which field a scan of {@link MessageType#fieldsAndOneOfFields()} would find first: declared fields before oneOf
+	 * fields, each in the order they were added.
+	 */
+	private static class FieldIndex {
+		private final Map<String, List<IndexedField>> fieldsByName = new HashMap<>();
+		private long sequence;
+
+		FieldIndex(MessageType message) {
+			for (Field field : message.fields()) {
+				add(field, false);
+			}
+			for (OneOf oneOf : message.oneOfs()) {
+				for (Field field : oneOf.fields()) {
+					add(field, true);
+				}
+			}
+		}
+
+		void add(Field field, boolean inOneOf) {
+			fieldsByName.computeIfAbsent(field.name(), k -> new ArrayList<>(1)).add(new IndexedField(field, inOneOf, sequence++));
+		}
+
+		IndexedField first(String name) {
+			List<IndexedField> candidates = fieldsByName.get(name);
+			if (candidates == null) {
+				return null;
+			}
+			IndexedField first = null;
+			for (IndexedField candidate : candidates) {
+				if (first == null || candidate.isBefore(first)) {
+					first = candidate;
+				}
+			}
+			return first;
+		}
+
+		void remove(Field field) {
+			remove(field.name(), field);
+		}
+
+		void renamed(Field field, String oldName) {
+			IndexedField removed = remove(oldName, field);
+			if (removed != null) {
+				fieldsByName.computeIfAbsent(field.name(), k -> new ArrayList<>(1)).add(removed);
+			}
+		}
+
+		private IndexedField remove(String name, Field field) {
+			List<IndexedField> candidates = fieldsByName.get(name);
+			if (candidates != null) {
+				for (Iterator<IndexedField> i = candidates.iterator(); i.hasNext();) {
+					IndexedField candidate = i.next();
+					if (candidate.field == field) {
+						i.remove();
+						return candidate;
+					}
+				}
+			}
+			return null;
+		}
+	}
+
+	private static class IndexedField {
+		private final Field field;
+		private final boolean inOneOf;
+		private final long sequence;
+
+		IndexedField(Field field, boolean inOneOf, long sequence) {
+			this.field = field;
+			this.inOneOf = inOneOf;
+			this.sequence = sequence;
+		}
+
+		boolean isBefore(IndexedField other) {
+			if (inOneOf != other.inOneOf) {
+				return !inOneOf;
+			}
+			return sequence < other.sequence;
+		}
 	}
 
 	private MessageType createWrapper(String typeName, MessageType messageType, String wrapperFieldName, String targetNamespace, XSParticle particle,
@@ -327,7 +531,7 @@ public class SchemaParser implements ErrorHandler {
 				processedXmlObjects.add(currElementDecl);
 
 				XSType type = currElementDecl.getType();
-				String fieldDoc = resolveDocumentationAnnotation(currElementDecl, false);
+				String fieldDoc = resolveDocumentationAnnotation(currElementDecl, false, configuration.includeFieldDocs);
 				Location fieldLocation = getLocation(currElementDecl);
 
 				String packageName = NamespaceHelper.xmlNamespaceToProtoFieldPackagename(type.getTargetNamespace(), configuration.forceProtoPackage);
@@ -418,8 +622,9 @@ public class SchemaParser implements ErrorHandler {
 				fieldLocation = messageType.location();
 			}
 
-			Field field = new Field(null, fieldLocation, label, "any", resolveDocumentationAnnotation(currTerm.asWildcard(), false),
-					messageType.getNextFieldNum(), "anyType", fieldOptions, true);
+			Field field = new Field(null, fieldLocation, label, "any",
+					resolveDocumentationAnnotation(currTerm.asWildcard(), false, configuration.includeFieldDocs), messageType.getNextFieldNum(), "anyType",
+					fieldOptions, true);
 			addField(messageType, field);
 
 		} else {
@@ -442,7 +647,7 @@ public class SchemaParser implements ErrorHandler {
 
 	private void addOneOfField(MessageType messageType, XSSchemaSet schemaSet, Options fieldOptions, Location fieldLocation, OneOf oneOf,
 			XSElementDecl element) {
-		String doc = resolveDocumentationAnnotation(element, false);
+		String doc = resolveDocumentationAnnotation(element, false, configuration.includeFieldDocs);
 
 		String typeName = element.getType().getName();
 		if (typeName == null) {
@@ -483,6 +688,21 @@ public class SchemaParser implements ErrorHandler {
 	}
 
 	public String findFieldType(XSType type) {
+		if (!type.isSimpleType()) {
+			return resolveFieldType(type);
+		}
+
+		// Resolving walks the whole base type chain, so remember the result for every simple type
+		XSSimpleType simpleType = type.asSimpleType();
+		if (fieldTypePerSimpleType.containsKey(simpleType)) {
+			return fieldTypePerSimpleType.get(simpleType);
+		}
+		String typeName = resolveFieldType(simpleType);
+		fieldTypePerSimpleType.put(simpleType, typeName);
+		return typeName;
+	}
+
+	private String resolveFieldType(XSType type) {
 		String typeName = type.getName();
 		if (typeName == null) {
 
@@ -559,6 +779,23 @@ public class SchemaParser implements ErrorHandler {
 
 	private MessageType processComplexType(XSComplexType complexType, String elementName, XSSchemaSet schemaSet, MessageType messageType,
 			Set<Object> processedXmlObjects) {
+		ComplexTypeEvent event = new ComplexTypeEvent();
+		event.begin();
+		try {
+			return processComplexTypeInternal(complexType, elementName, schemaSet, messageType, processedXmlObjects);
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.namespace = complexType.getTargetNamespace();
+				event.typeName = complexType.getName() != null ? complexType.getName() : elementName;
+				event.file = complexType.getLocator() != null ? complexType.getLocator().getSystemId() : null;
+				event.commit();
+			}
+		}
+	}
+
+	private MessageType processComplexTypeInternal(XSComplexType complexType, String elementName, XSSchemaSet schemaSet, MessageType messageType,
+			Set<Object> processedXmlObjects) {
 
 		nestingLevel++;
 
@@ -598,7 +835,7 @@ public class SchemaParser implements ErrorHandler {
 				// scope
 				XSComponent componentForAnnotationResolution = complexType.getAnnotation() != null || complexType.getScope() == null ? complexType
 						: complexType.getScope();
-				String doc = resolveDocumentationAnnotation(componentForAnnotationResolution, true);
+				String doc = resolveDocumentationAnnotation(componentForAnnotationResolution, true, configuration.includeMessageDocs);
 				Location location = getLocation(complexType);
 
 				List<OptionElement> messageOptions = new ArrayList<>();
@@ -720,7 +957,7 @@ public class SchemaParser implements ErrorHandler {
 				Location fieldLocation = getLocation(xsSimpleType);
 				Label label = isList || isCurrentOrParentList(xsSimpleType) ? Label.REPEATED : null;
 				Options fieldOptions = getFieldOptions(xsSimpleType);
-				String doc = resolveDocumentationAnnotation(complexType, false);
+				String doc = resolveDocumentationAnnotation(complexType, false, configuration.includeFieldDocs);
 
 				if (name == null) {
 					String simpleTypeName = findFieldType(xsSimpleType);
@@ -756,6 +993,15 @@ public class SchemaParser implements ErrorHandler {
 	}
 
 	private boolean isCurrentOrParentList(XSSimpleType xsSimpleType) {
+		Boolean list = listPerSimpleType.get(xsSimpleType);
+		if (list == null) {
+			list = resolveCurrentOrParentList(xsSimpleType);
+			listPerSimpleType.put(xsSimpleType, list);
+		}
+		return list;
+	}
+
+	private boolean resolveCurrentOrParentList(XSSimpleType xsSimpleType) {
 		if (xsSimpleType.isList()) {
 			return true;
 		} else {
@@ -791,31 +1037,30 @@ public class SchemaParser implements ErrorHandler {
 	}
 
 	private String findPackageNameForType(MessageType parentMessageType) {
-		// Slow and dodgy
-		for (Map.Entry<String, ProtoFile> packageAndProtoFile : packageToProtoFileMap.entrySet()) {
-			ProtoFile file = packageAndProtoFile.getValue();
-			for (Type t : file.types()) {
-				if (t == parentMessageType) {
-					return packageAndProtoFile.getKey();
-				}
-			}
-
-		}
-		return null;
+		return packageNamePerType.get(parentMessageType);
 	}
 
 	private Location getLocation(XSComponent t) {
 		Locator locator = t.getLocator();
+		return documentLocationPerSystemId.computeIfAbsent(locator.getSystemId(), this::getDocumentLocation)
+				.at(locator.getLineNumber(), locator.getColumnNumber());
+	}
+
+	/**
+	 * Location of a schema document relative to the xsd file. Locations of components in the document are derived from it and share its base and path.
+	 */
+	private Location getDocumentLocation(String systemId) {
 		try {
-			URI absolute = URI.create(locator.getSystemId()); // With scheme
-			URI base = new URI("file", configuration.xsdFile.getAbsoluteFile().getParent(), null);
-			URI relative = base.relativize(absolute);
-			return new Location(base.toString(), relative.toString(), locator.getLineNumber(), locator.getColumnNumber());
+			if (xsdBaseUri == null) {
+				xsdBaseUri = new URI("file", configuration.xsdFile.getAbsoluteFile().getParent(), null);
+			}
+			URI absolute = URI.create(systemId); // With scheme
+			URI relative = xsdBaseUri.relativize(absolute);
+			return new Location(xsdBaseUri.toString(), relative.toString(), -1, -1);
 		} catch (URISyntaxException e) {
 			LOGGER.warn("Unable to relativise xsd file path: {}", e.getMessage());
-			return new Location("", locator.getSystemId(), locator.getLineNumber(), locator.getColumnNumber());
+			return new Location("", systemId, -1, -1);
 		}
-
 	}
 
 	private void processAttributes(XSAttContainer xsAttContainer, MessageType messageType, Set<Object> processedXmlObjects) {
@@ -842,7 +1087,7 @@ public class SchemaParser implements ErrorHandler {
 
 			if (type.getPrimitiveType() != null || type.isList() || type.isUnion()) {
 				String fieldName = decl.getName();
-				String doc = resolveDocumentationAnnotation(decl, false);
+				String doc = resolveDocumentationAnnotation(decl, false, configuration.includeFieldDocs);
 				int tag = messageType.getNextFieldNum();
 				Location fieldLocation = getLocation(decl);
 				Options fieldOptions = getFieldOptions(decl);
@@ -958,7 +1203,7 @@ public class SchemaParser implements ErrorHandler {
 
 			// Create new message type enclosed in existing
 
-			String doc = resolveDocumentationAnnotation(modelGroup, false);
+			String doc = resolveDocumentationAnnotation(modelGroup, false, configuration.includeMessageDocs);
 			Location location = getLocation(modelGroup);
 
 			// Add message type to file
@@ -1001,28 +1246,11 @@ public class SchemaParser implements ErrorHandler {
 		}
 	}
 
-	private String resolveDocumentationAnnotation(XSComponent xsComponent, boolean keepFirst) {
+	private String resolveDocumentationAnnotation(XSComponent xsComponent, boolean keepFirst, boolean includeDocs) {
 		String doc = "";
-		if (xsComponent.getAnnotation() != null && xsComponent.getAnnotation().getAnnotation() instanceof Node) {
-			Node annotationEl = (Node) xsComponent.getAnnotation().getAnnotation();
-			NodeList annotations = annotationEl.getChildNodes();
-
-			for (int i = 0; i < annotations.getLength(); i++) {
-				Node annotation = annotations.item(i);
-				if ("documentation".equals(annotation.getLocalName())) {
-
-					NodeList childNodes = annotation.getChildNodes();
-					for (int j = 0; j < childNodes.getLength(); j++) {
-						if (childNodes.item(j) instanceof Text) {
-							doc = childNodes.item(j).getNodeValue();
-						}
-					}
-					if (keepFirst) {
-						break;
-					}
-				}
-
-			}
+		if (includeDocs && xsComponent.getAnnotation() != null
+				&& xsComponent.getAnnotation().getAnnotation() instanceof DocumentationAnnotationParserFactory.Documentation) {
+			doc = ((DocumentationAnnotationParserFactory.Documentation) xsComponent.getAnnotation().getAnnotation()).getText(keepFirst);
 		}
 
 		String[] lines = doc.split("\n");
@@ -1076,7 +1304,7 @@ public class SchemaParser implements ErrorHandler {
 			while (it.hasNext()) {
 				List<OptionElement> optionElements = new ArrayList<>();
 				XSFacet next = it.next();
-				String doc = resolveDocumentationAnnotation(next, false);
+				String doc = resolveDocumentationAnnotation(next, false, configuration.includeFieldDocs);
 				String enumValue = next.getValue().value;
 
 				if (!addedValues.contains(enumValue)) {
@@ -1088,7 +1316,7 @@ public class SchemaParser implements ErrorHandler {
 			List<OptionElement> enumOptionElements = new ArrayList<>();
 			Options enumOptions = new Options(Options.ENUM_OPTIONS, enumOptionElements);
 
-			String doc = resolveDocumentationAnnotation(type, false);
+			String doc = resolveDocumentationAnnotation(type, false, configuration.includeMessageDocs);
 
 			ProtoType definedProtoType;
 			if (enclosingType == null) {
@@ -1140,4 +1368,11 @@ public class SchemaParser implements ErrorHandler {
 	public List<LocalType> getLocalTypes() {
 		return localTypes;
 	}
+
+	/**
+	 * System ids of all xsd documents read by {@link #parse()}.
+	 */
+	public List<String> getDocumentSystemIds() {
+		return documentSystemIds;
+	}
 }
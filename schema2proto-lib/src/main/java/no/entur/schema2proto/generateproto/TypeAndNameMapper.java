@@ -22,13 +22,12 @@
  */
 package no.entur.schema2proto.generateproto;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class TypeAndNameMapper {
@@ -36,7 +35,13 @@ public class TypeAndNameMapper {
 	private Map<Pattern, String> typeReplacing = new LinkedHashMap<>();
 	private Map<Pattern, String> nameMappings = new LinkedHashMap<>();
 	private Set<String> reservedJavaKeywords = new HashSet<>();
-	private List<FieldPath> ignoreFieldPaths;
+	// Ignored field names by package and message name
+	private Map<String, Map<String, Set<String>>> ignoredFields = new HashMap<>();
+
+	// Patterns above combined and cached per input, the same few names are mapped over and over
+	private final PatternMappings typeTranslations;
+	private final PatternMappings typeReplacements;
+	private final PatternMappings nameTranslations;
 
 	public TypeAndNameMapper(Schema2ProtoConfiguration configuration) {
 		typeReplacing.putAll(getStandardXsdTypeMappings());
@@ -51,7 +56,15 @@ public class TypeAndNameMapper {
 
 		reservedJavaKeywords.addAll(getReservedWords());
 
-		this.ignoreFieldPaths = configuration.ignoreOutputFields;
+		for (FieldPath f : configuration.ignoreOutputFields) {
+			ignoredFields.computeIfAbsent(f.getPackageName(), k -> new HashMap<>())
+					.computeIfAbsent(f.getMessageName(), k -> new HashSet<>())
+					.add(f.getFieldName());
+		}
+
+		typeTranslations = new PatternMappings(typeMappings);
+		typeReplacements = new PatternMappings(typeReplacing);
+		nameTranslations = new PatternMappings(nameMappings);
 
 	}
 
@@ -135,13 +148,7 @@ public class TypeAndNameMapper {
 
 	public String translateType(String type) {
 
-		for (Map.Entry<Pattern, String> p : typeMappings.entrySet()) {
-			Matcher m = p.getKey().matcher(type);
-			if (m.matches()) {
-				type = m.replaceAll(p.getValue());
-				break;
-			}
-		}
+		type = typeTranslations.apply(type);
 
 		type = type.replace("-", "");
 
@@ -150,14 +157,7 @@ public class TypeAndNameMapper {
 	}
 
 	public String translateFieldName(String name) {
-		for (Pattern p : nameMappings.keySet()) {
-			Matcher m = p.matcher(name);
-			if (m.matches()) {
-				return m.replaceAll(nameMappings.get(p));
-			}
-		}
-
-		return name;
+		return nameTranslations.apply(name);
 	}
 
 	public String escapeFieldName(String fieldName) {
@@ -169,13 +169,14 @@ public class TypeAndNameMapper {
 	}
 
 	public boolean ignoreOutputField(String packageName, String messageName, String fieldName) {
-		for (FieldPath f : ignoreFieldPaths) {
-			if (f.matches(packageName, messageName, fieldName)) {
-				return true;
-			}
-		}
+		return getIgnoredOutputFields(packageName, messageName).contains(fieldName);
+	}
 
-		return false;
+	/**
+	 * @return names of the fields to leave out of the given message
+	 */
+	public Set<String> getIgnoredOutputFields(String packageName, String messageName) {
+		return ignoredFields.getOrDefault(packageName, Collections.emptyMap()).getOrDefault(messageName, Collections.emptySet());
 	}
 
 	private Set<String> getReservedWords() {
@@ -243,15 +244,6 @@ public class TypeAndNameMapper {
 	}
 
 	public String replaceType(String type) {
-		for (Map.Entry<Pattern, String> p : typeReplacing.entrySet()) {
-			Matcher m = p.getKey().matcher(type);
-			if (m.matches()) {
-				type = m.replaceAll(p.getValue());
-				break;
-			}
-		}
-
-		return type;
-
+		return typeReplacements.apply(type);
 	}
 }
@@ -0,0 +1,108 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.squareup.wire.schema.EnumType;
+import com.squareup.wire.schema.MessageType;
+import com.squareup.wire.schema.ProtoFile;
+import com.squareup.wire.schema.ProtoType;
+import com.squareup.wire.schema.Type;
+
+/**
+ * Kind of every message and enum in the generated files, including nested types, by fully qualified name. Type names used by fields are resolved like protoc
+ * does, starting in the scope of the referencing message and moving outwards.
+ */
+class TypeKindIndex {
+
+	enum TypeKind {
+		MESSAGE,
+		ENUM,
+		SCALAR
+	}
+
+	private static final Set<String> SCALAR_TYPES = Stream
+			.of(ProtoType.BOOL, ProtoType.BYTES, ProtoType.DOUBLE, ProtoType.FLOAT, ProtoType.FIXED32, ProtoType.FIXED64, ProtoType.INT32, ProtoType.INT64,
+					ProtoType.SFIXED32, ProtoType.SFIXED64, ProtoType.SINT32, ProtoType.SINT64, ProtoType.STRING, ProtoType.UINT32, ProtoType.UINT64)
+			.map(ProtoType::toString)
+			.collect(Collectors.toSet());
+
+	private final Map<String, TypeKind> kinds = new HashMap<>();
+	private final Map<MessageType, String> messageNames = new IdentityHashMap<>();
+
+	TypeKindIndex(Map<String, ProtoFile> packageToProtoFileMap) {
+		for (ProtoFile file : packageToProtoFileMap.values()) {
+			add(file.packageName(), file.types());
+		}
+	}
+
+	private void add(String scope, List<Type> types) {
+		for (Type type : types) {
+			String name = qualify(scope, type.type().simpleName());
+			if (type instanceof MessageType) {
+				kinds.put(name, TypeKind.MESSAGE);
+				messageNames.put((MessageType) type, name);
+			} else if (type instanceof EnumType) {
+				kinds.put(name, TypeKind.ENUM);
+			}
+			add(name, type.nestedTypes());
+		}
+	}
+
+	/**
+	 * @param file               the file the referencing message is declared in
+	 * @param referencingMessage the message with a field of the type
+	 * @param typeName           element type of the field, relative or fully qualified with a leading period
+	 * @return kind of the type, or null if it is not a scalar or a type in the generated files
+	 */
+	TypeKind resolve(ProtoFile file, MessageType referencingMessage, String typeName) {
+		if (typeName == null || typeName.isEmpty()) {
+			return null;
+		} else if (SCALAR_TYPES.contains(typeName)) {
+			return TypeKind.SCALAR;
+		} else if (typeName.startsWith(".")) {
+			return kinds.get(typeName.substring(1));
+		}
+
+		String scope = messageNames.getOrDefault(referencingMessage, file.packageName());
+		while (true) {
+			TypeKind kind = kinds.get(qualify(scope, typeName));
+			if (kind != null || scope == null) {
+				return kind;
+			}
+			int lastPeriod = scope.lastIndexOf('.');
+			scope = lastPeriod == -1 ? null : scope.substring(0, lastPeriod);
+		}
+	}
+
+	private static String qualify(String scope, String name) {
+		return scope == null || scope.isEmpty() ? name : scope + "." + name;
+	}
+}
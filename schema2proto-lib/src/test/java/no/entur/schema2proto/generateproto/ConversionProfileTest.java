@@ -0,0 +1,87 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import no.entur.schema2proto.AbstractMappingTest;
+
+public class ConversionProfileTest extends AbstractMappingTest {
+
+	@Test
+	public void testProfileFileFromCommandLine() throws IOException {
+		File profileFile = new File("target/profile/multinamespace.json");
+		profileFile.delete();
+
+		Schema2Proto.main(new String[] { "--outputDirectory=target/generated-proto/profile/", "--profile=" + profileFile.getPath(),
+				"src/test/resources/xsd/multinamespace/ns-person.xsd" });
+
+		assertTrue(profileFile.exists());
+		try (Reader reader = new FileReader(profileFile)) {
+			JsonObject report = JsonParser.parseReader(reader).getAsJsonObject();
+			JsonArray phases = report.getAsJsonArray("phases");
+			List<String> names = new ArrayList<>();
+			for (JsonElement phase : phases) {
+				JsonObject p = phase.getAsJsonObject();
+				names.add(p.get("stage").getAsString() + "." + p.get("phase").getAsString());
+				assertTrue(p.get("wallTimeNanos").getAsLong() >= 0);
+			}
+			assertTrue(names.contains("SchemaParser.parseDocuments"));
+			assertTrue(names.contains("SchemaParser.processComplexTypes"));
+			assertTrue(names.contains("ProtoSerializer.translateTypes"));
+			assertTrue(names.contains("ProtoSerializer.sortFieldsByTag"));
+			assertTrue(names.contains("ProtoSerializer.parseWrittenFiles"));
+			assertTrue(report.get("totalWallTimeNanos").getAsLong() > 0);
+		}
+	}
+
+	@Test
+	public void testConversionListener() throws IOException {
+		List<PhaseMetrics> metrics = new ArrayList<>();
+		Schema2ProtoConfiguration configuration = new Schema2ProtoConfiguration();
+		configuration.conversionListener = metrics::add;
+		generateProtobuf("basic/toplevelcomplextype.xsd", configuration);
+
+		List<String> parserPhases = metrics.stream().filter(m -> m.getStage().equals("SchemaParser")).map(PhaseMetrics::getPhase).collect(Collectors.toList());
+		assertEquals(List.of("parseDocuments", "buildSchemaSet", "processSimpleTypes", "processComplexTypes", "processElements"), parserPhases);
+
+		PhaseMetrics sortFieldsByTag = metrics.stream().filter(m -> m.getPhase().equals("sortFieldsByTag")).findFirst().orElseThrow();
+		assertTrue(sortFieldsByTag.getNodeCount() > 0);
+	}
+}
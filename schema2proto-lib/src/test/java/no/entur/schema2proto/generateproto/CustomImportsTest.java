@@ -0,0 +1,75 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import no.entur.schema2proto.InvalidConfigurationException;
+
+public class CustomImportsTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testOnlyCustomImportsInUseAreAdded() throws IOException, InvalidConfigurationException {
+		Path xsd = tempDir.resolve("order.xsd");
+		Files.writeString(xsd,
+				"<xsd:schema xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" targetNamespace=\"http://example.com/order\" xmlns=\"http://example.com/order\">\n"
+						+ "  <xsd:complexType name=\"Order\">\n" + "    <xsd:sequence>\n" + "      <xsd:element name=\"id\" type=\"xsd:string\"/>\n"
+						+ "      <xsd:element name=\"line\" maxOccurs=\"unbounded\">\n" + "        <xsd:complexType>\n" + "          <xsd:sequence>\n"
+						+ "            <xsd:element name=\"amount\" type=\"xsd:decimal\"/>\n" + "          </xsd:sequence>\n" + "        </xsd:complexType>\n"
+						+ "      </xsd:element>\n" + "    </xsd:sequence>\n" + "  </xsd:complexType>\n" + "  <xsd:element name=\"order\" type=\"Order\"/>\n"
+						+ "</xsd:schema>\n");
+
+		Path imports = Files.createDirectories(tempDir.resolve("imports/custom"));
+		Files.writeString(imports.resolve("money.proto"), "syntax = \"proto3\";\npackage custom;\nimport \"custom/currency.proto\";\n"
+				+ "message Money {\n  int64 units = 1;\n  Currency currency = 2;\n}\n");
+		Files.writeString(imports.resolve("currency.proto"), "syntax = \"proto3\";\npackage custom;\nenum Currency {\n  CURRENCY_UNSPECIFIED = 0;\n}\n");
+		Files.writeString(imports.resolve("unused.proto"), "syntax = \"proto3\";\npackage custom.unused;\nmessage Unused {\n  string value = 1;\n}\n");
+
+		Schema2ProtoConfiguration configuration = new Schema2ProtoConfiguration();
+		configuration.xsdFile = xsd.toFile();
+		configuration.outputDirectory = tempDir.resolve("out").toFile();
+		configuration.forceProtoPackage = "order";
+		configuration.customTypeReplacements.put(Pattern.compile("^decimal$"), "custom.Money");
+		configuration.customImportLocations.add(tempDir.resolve("imports").toString());
+		configuration.customImports.add("custom/money.proto");
+		configuration.customImports.add("custom/unused.proto");
+		Schema2Proto.parseAndSerialize(configuration);
+
+		String proto = Files.readString(tempDir.resolve("out/order/order.proto"));
+		assertTrue(proto.contains("custom.Money amount"), proto);
+		assertTrue(proto.contains("import \"custom/money.proto\";"), proto);
+		assertFalse(proto.contains("custom/unused.proto"), proto);
+	}
+}
@@ -0,0 +1,139 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.Text;
+import org.xml.sax.InputSource;
+
+import com.sun.xml.xsom.XSComponent;
+import com.sun.xml.xsom.XSSchemaSet;
+import com.sun.xml.xsom.parser.AnnotationParserFactory;
+import com.sun.xml.xsom.parser.XSOMParser;
+import com.sun.xml.xsom.util.DomAnnotationParserFactory;
+
+public class DocumentationAnnotationParserFactoryTest {
+
+	private static final String NS = "urn:test";
+
+	private static final String SCHEMA = "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' targetNamespace='urn:test'>"
+			+ "<xs:annotation><xs:documentation>first schema doc</xs:documentation></xs:annotation>"
+			+ "<xs:annotation><xs:appinfo>ignored</xs:appinfo><xs:documentation>second schema doc</xs:documentation></xs:annotation>"
+			+ "<xs:element name='plain' type='xs:string'><xs:annotation><xs:documentation>plain doc</xs:documentation></xs:annotation></xs:element>"
+			+ "<xs:element name='multiple' type='xs:string'><xs:annotation>"
+			+ "<xs:documentation>first</xs:documentation><xs:documentation/><xs:documentation>last</xs:documentation>" + "</xs:annotation></xs:element>"
+			+ "<xs:element name='markup' type='xs:string'><xs:annotation>"
+			+ "<xs:documentation>before <b>bold <i>nested</i></b> after &amp; <![CDATA[more]]></xs:documentation>" + "</xs:annotation></xs:element>"
+			+ "<xs:element name='trailingMarkup' type='xs:string'><xs:annotation>" + "<xs:documentation>text<p>paragraph</p></xs:documentation>"
+			+ "</xs:annotation></xs:element>" + "<xs:element name='empty' type='xs:string'><xs:annotation><xs:documentation/></xs:annotation></xs:element>"
+			+ "</xs:schema>";
+
+	@Test
+	public void testSameTextAsDom() throws Exception {
+		XSSchemaSet streamed = parse(new DocumentationAnnotationParserFactory());
+		XSSchemaSet dom = parse(new DomAnnotationParserFactory());
+
+		List<XSComponent> streamedComponents = components(streamed);
+		List<XSComponent> domComponents = components(dom);
+		for (int i = 0; i < streamedComponents.size(); i++) {
+			Object documentation = streamedComponents.get(i).getAnnotation().getAnnotation();
+			assertInstanceOf(DocumentationAnnotationParserFactory.Documentation.class, documentation);
+			for (boolean keepFirst : new boolean[] { true, false }) {
+				assertEquals(domText((Node) domComponents.get(i).getAnnotation().getAnnotation(), keepFirst),
+						((DocumentationAnnotationParserFactory.Documentation) documentation).getText(keepFirst));
+			}
+		}
+	}
+
+	@Test
+	public void testDocumentationText() throws Exception {
+		XSSchemaSet schemaSet = parse(new DocumentationAnnotationParserFactory());
+
+		assertEquals("first schema doc", text(schemaSet.getSchema(NS), true));
+		assertEquals("second schema doc", text(schemaSet.getSchema(NS), false));
+		assertEquals("plain doc", text(schemaSet.getElementDecl(NS, "plain"), false));
+		assertEquals("first", text(schemaSet.getElementDecl(NS, "multiple"), true));
+		assertEquals("last", text(schemaSet.getElementDecl(NS, "multiple"), false));
+		assertEquals(" after & more", text(schemaSet.getElementDecl(NS, "markup"), false));
+		assertEquals("text", text(schemaSet.getElementDecl(NS, "trailingMarkup"), false));
+		assertEquals("", text(schemaSet.getElementDecl(NS, "empty"), false));
+	}
+
+	private static String text(XSComponent component, boolean keepFirst) {
+		return ((DocumentationAnnotationParserFactory.Documentation) component.getAnnotation().getAnnotation()).getText(keepFirst);
+	}
+
+	private static List<XSComponent> components(XSSchemaSet schemaSet) {
+		List<XSComponent> components = new ArrayList<>();
+		components.add(schemaSet.getSchema(NS));
+		for (String name : new String[] { "plain", "multiple", "markup", "trailingMarkup", "empty" }) {
+			components.add(schemaSet.getElementDecl(NS, name));
+		}
+		return components;
+	}
+
+	/**
+	 * Documentation text as previously read from the DOM annotation
+	 */
+	private static String domText(Node annotationEl, boolean keepFirst) {
+		String doc = "";
+		NodeList annotations = annotationEl.getChildNodes();
+		for (int i = 0; i < annotations.getLength(); i++) {
+			Node annotation = annotations.item(i);
+			if ("documentation".equals(annotation.getLocalName())) {
+				NodeList childNodes = annotation.getChildNodes();
+				for (int j = 0; j < childNodes.getLength(); j++) {
+					if (childNodes.item(j) instanceof Text) {
+						doc = childNodes.item(j).getNodeValue();
+					}
+				}
+				if (keepFirst) {
+					break;
+				}
+			}
+		}
+		return doc;
+	}
+
+	private static XSSchemaSet parse(AnnotationParserFactory annotationParserFactory) throws Exception {
+		SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
+		saxParserFactory.setNamespaceAware(true);
+		XSOMParser parser = new XSOMParser(saxParserFactory);
+		parser.setAnnotationParser(annotationParserFactory);
+		InputSource source = new InputSource(new StringReader(SCHEMA));
+		source.setSystemId("urn:test.xsd");
+		parser.parse(source);
+		return parser.getResult();
+	}
+}
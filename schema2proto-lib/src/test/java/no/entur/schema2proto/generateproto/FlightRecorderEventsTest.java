@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import no.entur.schema2proto.AbstractMappingTest;
+
+public class FlightRecorderEventsTest extends AbstractMappingTest {
+
+	@Test
+	public void testConversionEmitsEvents() throws IOException {
+		Path recordingFile = Files.createTempFile("schema2proto", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("no.entur.schema2proto.xsom.ParseEntity");
+			recording.enable("no.entur.schema2proto.ProcessComplexType");
+			recording.enable("no.entur.schema2proto.SerializerPass");
+			recording.enable("no.entur.schema2proto.wire.SchemaLoad");
+			recording.enable("no.entur.schema2proto.wire.Link");
+			recording.start();
+
+			generateProtobufNoOptions("basic/toplevelcomplextype.xsd");
+
+			recording.stop();
+			recording.dump(recordingFile);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+		Files.delete(recordingFile);
+
+		Set<String> eventNames = new HashSet<>();
+		for (RecordedEvent event : events) {
+			eventNames.add(event.getEventType().getName());
+			if (event.getEventType().getName().equals("no.entur.schema2proto.ProcessComplexType")) {
+				assertTrue(event.getString("file").endsWith("toplevelcomplextype.xsd"));
+			}
+		}
+
+		assertTrue(eventNames.contains("no.entur.schema2proto.xsom.ParseEntity"));
+		assertTrue(eventNames.contains("no.entur.schema2proto.ProcessComplexType"));
+		assertTrue(eventNames.contains("no.entur.schema2proto.SerializerPass"));
+		assertTrue(eventNames.contains("no.entur.schema2proto.wire.SchemaLoad"));
+		assertTrue(eventNames.contains("no.entur.schema2proto.wire.Link"));
+	}
+}
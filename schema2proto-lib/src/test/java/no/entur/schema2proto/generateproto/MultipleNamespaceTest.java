@@ -23,12 +23,17 @@
  */
 package no.entur.schema2proto.generateproto;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import org.junit.jupiter.api.Test;
 
 import no.entur.schema2proto.AbstractMappingTest;
+import no.entur.schema2proto.InvalidConfigurationException;
 
 public class MultipleNamespaceTest extends AbstractMappingTest {
 
@@ -47,4 +52,25 @@ public class MultipleNamespaceTest extends AbstractMappingTest {
 				"com/schemas/domain/address/com_schemas_domain_address.proto");
 	}
 
+	@Test
+	public void shouldCreateSameFilesWithParallelParsing() throws IOException {
+		Schema2Proto.main(new String[] { "--outputDirectory=target/generated-proto/multinamespace-parallel/", "--parserThreads=4",
+				"src/test/resources/xsd/multinamespace/ns-person.xsd" });
+
+		File parallelRootFolder = new File("target/generated-proto/multinamespace-parallel");
+		compareExpectedAndGenerated(expectedRootFolder, "com/schemas/domain/person/com_schemas_domain_person.proto", parallelRootFolder,
+				"com/schemas/domain/person/com_schemas_domain_person.proto");
+		compareExpectedAndGenerated(expectedRootFolder, "com/schemas/domain/common/com_schemas_domain_common.proto", parallelRootFolder,
+				"com/schemas/domain/common/com_schemas_domain_common.proto");
+		compareExpectedAndGenerated(expectedRootFolder, "com/schemas/domain/address/com_schemas_domain_address.proto", parallelRootFolder,
+				"com/schemas/domain/address/com_schemas_domain_address.proto");
+	}
+
+	@Test
+	public void shouldRejectLessThanOneParserThreadInConfigFile() {
+		String config = "outputDirectory: target/generated-proto/multinamespace-parallel\nparserThreads: 0\n";
+		assertThrows(InvalidConfigurationException.class, () -> Schema2Proto.parseConfigurationFileIntoConfiguration(new Schema2ProtoConfiguration(),
+				new ByteArrayInputStream(config.getBytes(StandardCharsets.UTF_8))));
+	}
+
 }
@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+public class PatternMappingsTest {
+
+	@Test
+	public void testFirstMatchingPatternIsApplied() {
+		Map<Pattern, String> mappings = new LinkedHashMap<>();
+		mappings.put(Pattern.compile("^(.*)Type$"), "$1");
+		mappings.put(Pattern.compile("^Some(.*)$"), "Other$1");
+		mappings.put(Pattern.compile("a|b"), "c");
+		PatternMappings patternMappings = new PatternMappings(mappings);
+
+		assertEquals("Some", patternMappings.apply("SomeType"));
+		assertEquals("OtherThing", patternMappings.apply("SomeThing"));
+		assertEquals("c", patternMappings.apply("b"));
+		assertEquals("ab", patternMappings.apply("ab"));
+		assertEquals("Unmapped", patternMappings.apply("Unmapped"));
+		// Cached
+		assertEquals("Some", patternMappings.apply("SomeType"));
+	}
+
+	@Test
+	public void testPatternsThatCannotBeCombined() {
+		Map<Pattern, String> mappings = new LinkedHashMap<>();
+		mappings.put(Pattern.compile("(a)\\1"), "double");
+		mappings.put(Pattern.compile("x", Pattern.CASE_INSENSITIVE), "y");
+		mappings.put(Pattern.compile("(?<n>b)"), "${n}b");
+		mappings.put(Pattern.compile("(?<n>c)"), "${n}c");
+		PatternMappings patternMappings = new PatternMappings(mappings);
+
+		assertEquals("double", patternMappings.apply("aa"));
+		assertEquals("y", patternMappings.apply("X"));
+		assertEquals("bb", patternMappings.apply("b"));
+		assertEquals("cc", patternMappings.apply("c"));
+	}
+}
@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import no.entur.schema2proto.AbstractMappingTest;
+import no.entur.schema2proto.InvalidConfigurationException;
+
+public class SchemaEntityResolverTest extends AbstractMappingTest {
+
+	private static final String REMOTE_LOCATION = "http://schemas.example.invalid/domain/";
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testImportsResolvedThroughCatalog() throws IOException, InvalidConfigurationException {
+		Path source = Paths.get("src/test/resources/xsd/multinamespace");
+		Path local = Files.createDirectories(tempDir.resolve("local"));
+		Files.copy(source.resolve("ns-common.xsd"), local.resolve("ns-common.xsd"));
+		Files.copy(source.resolve("ns-address.xsd"), local.resolve("ns-address.xsd"));
+
+		// the schema only refers to remote locations that do not exist
+		String person = Files.readString(source.resolve("ns-person.xsd"))
+				.replace("schemaLocation=\"ns-common.xsd\"", "schemaLocation=\"" + REMOTE_LOCATION + "ns-common.xsd\"")
+				.replace("schemaLocation=\"ns-address.xsd\"", "schemaLocation=\"" + REMOTE_LOCATION + "ns-address.xsd\"");
+		Files.writeString(tempDir.resolve("ns-person.xsd"), person);
+
+		Path catalog = tempDir.resolve("catalog.xml");
+		Files.writeString(catalog, "<catalog xmlns=\"urn:oasis:names:tc:entity:xmlns:xml:catalog\">\n" + "  <rewriteSystem systemIdStartString=\""
+				+ REMOTE_LOCATION + "\" rewritePrefix=\"local/\"/>\n" + "</catalog>\n");
+
+		Schema2ProtoConfiguration configuration = new Schema2ProtoConfiguration();
+		configuration.xsdFile = tempDir.resolve("ns-person.xsd").toFile();
+		configuration.outputDirectory = tempDir.resolve("proto").toFile();
+		configuration.xmlCatalogs.add(catalog.toString());
+		configuration.cacheReferencedDocuments = true;
+		Schema2Proto.parseAndSerialize(configuration);
+
+		File expectedRootFolder = new File("src/test/resources/expectedproto/multinamespace");
+		for (String protoFile : new String[] { "com/schemas/domain/person/com_schemas_domain_person.proto",
+				"com/schemas/domain/common/com_schemas_domain_common.proto", "com/schemas/domain/address/com_schemas_domain_address.proto" }) {
+			compareExpectedAndGenerated(expectedRootFolder, protoFile, configuration.outputDirectory, protoFile);
+		}
+	}
+
+	@Test
+	public void testCachedDocumentIsReadAgainWhenChanged() throws IOException, SAXException {
+		Path document = tempDir.resolve("cached.xsd");
+		Files.writeString(document, "first");
+		String systemId = document.toUri().toString();
+
+		SchemaEntityResolver resolver = new SchemaEntityResolver(Collections.emptyList(), true);
+		assertEquals("first", read(resolver.resolveEntity(null, systemId)));
+		assertEquals("first", read(resolver.resolveEntity(null, systemId)));
+
+		Files.writeString(document, "second");
+		Files.setLastModifiedTime(document, FileTime.fromMillis(Files.getLastModifiedTime(document).toMillis() + 2000));
+		assertEquals("second", read(new SchemaEntityResolver(Collections.emptyList(), true).resolveEntity(null, systemId)));
+	}
+
+	@Test
+	public void testUnresolvedDocumentLeftToParser() throws IOException, SAXException {
+		SchemaEntityResolver resolver = new SchemaEntityResolver(List.of(), true);
+		assertNull(resolver.resolveEntity(null, tempDir.resolve("missing.xsd").toUri().toString()));
+		assertNull(new SchemaEntityResolver(List.of(), false).resolveEntity(null, tempDir.resolve("missing.xsd").toUri().toString()));
+	}
+
+	private static String read(InputSource source) throws IOException {
+		try (InputStream in = source.getByteStream()) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
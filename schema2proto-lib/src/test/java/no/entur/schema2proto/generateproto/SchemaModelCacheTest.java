@@ -0,0 +1,98 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import no.entur.schema2proto.InvalidConfigurationException;
+
+public class SchemaModelCacheTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testCachedModelGivesSameOutput() throws IOException, InvalidConfigurationException {
+		Path xsdFolder = Files.createDirectories(tempDir.resolve("xsd"));
+		for (String xsd : new String[] { "ns-person.xsd", "ns-common.xsd", "ns-address.xsd" }) {
+			Files.copy(Paths.get("src/test/resources/xsd/multinamespace", xsd), xsdFolder.resolve(xsd));
+		}
+
+		Path uncachedOutput = tempDir.resolve("uncached");
+		Schema2Proto.parseAndSerialize(configuration(xsdFolder, uncachedOutput));
+		assertNotNull(new SchemaModelCache(configuration(xsdFolder, uncachedOutput)).load());
+
+		Path cachedOutput = tempDir.resolve("cached");
+		Schema2Proto.parseAndSerialize(configuration(xsdFolder, cachedOutput));
+
+		List<Path> protoFiles = listFiles(uncachedOutput);
+		assertFalse(protoFiles.isEmpty());
+		assertEquals(protoFiles, listFiles(cachedOutput));
+		for (Path protoFile : protoFiles) {
+			assertEquals(Files.readString(uncachedOutput.resolve(protoFile)), Files.readString(cachedOutput.resolve(protoFile)));
+		}
+
+		// an imported document changes
+		Files.writeString(xsdFolder.resolve("ns-address.xsd"), "<!-- changed -->\n", StandardOpenOption.APPEND);
+		assertNull(new SchemaModelCache(configuration(xsdFolder, cachedOutput)).load());
+
+		// only the model of the latest documents is kept
+		Schema2Proto.parseAndSerialize(configuration(xsdFolder, cachedOutput));
+		assertNotNull(new SchemaModelCache(configuration(xsdFolder, cachedOutput)).load());
+		assertEquals(1, listFiles(tempDir.resolve("cache")).stream().filter(f -> f.toString().endsWith(".model")).count());
+
+		// the configuration changes
+		Schema2ProtoConfiguration withoutDocs = configuration(xsdFolder, cachedOutput);
+		withoutDocs.includeFieldDocs = false;
+		assertNull(new SchemaModelCache(withoutDocs).load());
+	}
+
+	private Schema2ProtoConfiguration configuration(Path xsdFolder, Path outputDirectory) {
+		Schema2ProtoConfiguration configuration = new Schema2ProtoConfiguration();
+		configuration.xsdFile = xsdFolder.resolve("ns-person.xsd").toFile();
+		configuration.outputDirectory = outputDirectory.toFile();
+		configuration.cacheDirectory = tempDir.resolve("cache").toFile();
+		return configuration;
+	}
+
+	private static List<Path> listFiles(Path folder) throws IOException {
+		try (Stream<Path> files = Files.walk(folder)) {
+			return files.filter(Files::isRegularFile).map(folder::relativize).sorted().collect(Collectors.toList());
+		}
+	}
+}
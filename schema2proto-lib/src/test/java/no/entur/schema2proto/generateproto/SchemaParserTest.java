@@ -47,6 +47,23 @@ public class SchemaParserTest extends AbstractMappingTest {
 		compareExpectedAndGenerated(expectedRootFolder, "default/nestedtoplevelelement.proto", generatedRootFolder, "default/default.proto");
 	}
 
+	@Test
+	public void testNestedTopLevelElementWithoutFieldDocs() throws IOException {
+		Schema2ProtoConfiguration configuration = new Schema2ProtoConfiguration();
+		configuration.includeFieldDocs = false;
+		generateProtobufNoTypeOrNameMappings("basic/nestedtoplevelelement.xsd", configuration);
+		compareExpectedAndGenerated(expectedRootFolder, "default/nestedtoplevelelement_nofielddocs.proto", generatedRootFolder, "default/default.proto");
+	}
+
+	@Test
+	public void testNestedTopLevelElementWithoutDocs() throws IOException {
+		Schema2ProtoConfiguration configuration = new Schema2ProtoConfiguration();
+		configuration.includeFieldDocs = false;
+		configuration.includeMessageDocs = false;
+		generateProtobufNoTypeOrNameMappings("basic/nestedtoplevelelement.xsd", configuration);
+		compareExpectedAndGenerated(expectedRootFolder, "default/nestedtoplevelelement_nodocs.proto", generatedRootFolder, "default/default.proto");
+	}
+
 	@Test
 	public void testBasicTopLevelEnum() throws IOException {
 		generateProtobufNoOptions("basic/toplevelenum.xsd");
@@ -0,0 +1,51 @@
+/*-
+ * #%L
+ * schema2proto-lib
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ *
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl5
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+package no.entur.schema2proto.generateproto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class TypeAndNameMapperTest {
+
+	@Test
+	public void testIgnoreOutputFields() {
+		Schema2ProtoConfiguration configuration = new Schema2ProtoConfiguration();
+		configuration.ignoreOutputFields.add(new FieldPath("a.b", "Message", "field1"));
+		configuration.ignoreOutputFields.add(new FieldPath("a.b", "Message", "field2"));
+		configuration.ignoreOutputFields.add(new FieldPath("a.b", "Outer.Inner", "field1"));
+		TypeAndNameMapper mapper = new TypeAndNameMapper(configuration);
+
+		assertTrue(mapper.ignoreOutputField("a.b", "Message", "field1"));
+		assertTrue(mapper.ignoreOutputField("a.b", "Outer.Inner", "field1"));
+		assertFalse(mapper.ignoreOutputField("a.b", "Message", "field3"));
+		assertFalse(mapper.ignoreOutputField("a.c", "Message", "field1"));
+		assertFalse(mapper.ignoreOutputField("a.b", "Inner", "field1"));
+		assertEquals(Set.of("field1", "field2"), mapper.getIgnoredOutputFields("a.b", "Message"));
+		assertTrue(mapper.getIgnoredOutputFields("a.b", "Other").isEmpty());
+	}
+}
@@ -25,6 +25,7 @@ package no.entur;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.List;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -57,6 +58,36 @@ public class GenerateProtoMojo extends AbstractMojo {
 	@Parameter(property = "failIfRemovedFields")
 	private Boolean failIfRemovedFields;
 
+	/**
+	 * Write wall time, allocated bytes and node count per conversion phase to this json file
+	 */
+	@Parameter(property = "schema2proto.profileFile")
+	private File profileFile;
+
+	/**
+	 * Number of threads reading included and imported xsd files, overrides the config file
+	 */
+	@Parameter(property = "schema2proto.parserThreads")
+	private Integer parserThreads;
+
+	/**
+	 * Folder to cache the parsed xsd model in between builds, overrides the config file
+	 */
+	@Parameter(property = "schema2proto.cacheDirectory")
+	private File cacheDirectory;
+
+	/**
+	 * OASIS XML catalogs used to resolve xsd imports and includes, added to the ones in the config file
+	 */
+	@Parameter(property = "schema2proto.xmlCatalogs")
+	private List<File> xmlCatalogs;
+
+	/**
+	 * Keep imported and included xsd files in memory, so that they are read only once per build. Overrides the config file
+	 */
+	@Parameter(property = "schema2proto.cacheReferencedDocuments")
+	private Boolean cacheReferencedDocuments;
+
 	public void execute() throws MojoExecutionException {
 
 		try {
@@ -80,6 +111,29 @@ public class GenerateProtoMojo extends AbstractMojo {
 				configuration.failIfRemovedFields = failIfRemovedFields;
 			}
 
+			if (profileFile != null) {
+				configuration.profileFile = profileFile;
+			}
+
+			if (parserThreads != null) {
+				Schema2Proto.validateParserThreads(parserThreads);
+				configuration.parserThreads = parserThreads;
+			}
+
+			if (cacheDirectory != null) {
+				configuration.cacheDirectory = cacheDirectory;
+			}
+
+			if (xmlCatalogs != null) {
+				for (File xmlCatalog : xmlCatalogs) {
+					configuration.xmlCatalogs.add(xmlCatalog.getPath());
+				}
+			}
+
+			if (cacheReferencedDocuments != null) {
+				configuration.cacheReferencedDocuments = cacheReferencedDocuments;
+			}
+
 			Schema2Proto.parseAndSerialize(configuration);
 
 		} catch (MojoExecutionException | InvalidConfigurationException | IOException e) {
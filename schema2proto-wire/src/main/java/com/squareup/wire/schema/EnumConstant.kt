@@ -16,6 +16,7 @@
 package com.squareup.wire.schema
 
 import com.squareup.wire.schema.internal.parser.EnumConstantElement
+import java.io.Serializable
 
 class EnumConstant public constructor(
         val location: Location,
@@ -23,7 +24,7 @@ class EnumConstant public constructor(
         var tag: Int,
         val documentation: String,
         val options: Options
-) {
+) : Serializable {
     internal fun toElement() =
             EnumConstantElement(location, name, tag, documentation, options.toElements())
 
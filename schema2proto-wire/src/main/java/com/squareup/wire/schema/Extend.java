@@ -38,12 +38,13 @@
  */
 package com.squareup.wire.schema;
 
+import java.io.Serializable;
 import java.util.List;
 
 import com.google.common.collect.ImmutableList;
 import com.squareup.wire.schema.internal.parser.ExtendElement;
 
-public final class Extend {
+public final class Extend implements Serializable {
 	private final Location location;
 	private final String documentation;
 	private final String name;
@@ -17,13 +17,14 @@ package com.squareup.wire.schema
 
 import com.squareup.wire.schema.internal.Util
 import com.squareup.wire.schema.internal.parser.ExtensionsElement
+import java.io.Serializable
 
 internal class Extensions private constructor(
         val location: Location,
         val documentation: String,
         val start: Int,
         val end: Int
-) {
+) : Serializable {
     fun validate(linker: Linker) {
         if (!Util.isValidTag(start) || !Util.isValidTag(end)) {
             linker.withContext(this)
@@ -39,6 +39,7 @@ package com.squareup.wire.schema;
 
 import static com.squareup.wire.schema.Options.FIELD_OPTIONS;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -46,7 +47,7 @@ import java.util.List;
 import com.google.common.collect.ImmutableList;
 import com.squareup.wire.schema.internal.parser.FieldElement;
 
-public final class Field {
+public final class Field implements Serializable {
 	static final ProtoMember DEPRECATED = ProtoMember.get(FIELD_OPTIONS, "deprecated");
 	static final ProtoMember PACKED = ProtoMember.get(FIELD_OPTIONS, "packed");
 
@@ -0,0 +1,46 @@
+package com.squareup.wire.schema;
+
+/*-
+ * #%L
+ * schema2proto-wire
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ * 
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ * 
+ * http://ec.europa.eu/idabc/eupl5
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering {@link Linker#link()}
+ */
+@Name("no.entur.schema2proto.wire.Link")
+@Label("Link Proto Schema")
+@Description("Linking of types, extensions and options of parsed proto files")
+@Category({ "schema2proto", "Wire" })
+final class LinkEvent extends jdk.jfr.Event {
+
+	@Label("Proto Files")
+	int protoFiles;
+
+	@Label("Types")
+	@Description("Top level types in all proto files")
+	int types;
+}
@@ -70,6 +70,9 @@ public final class Linker {
 	}
 
 	public Schema link() {
+		LinkEvent event = new LinkEvent();
+		event.begin();
+
 		// Register the types.
 		for (ProtoFile protoFile : protoFiles) {
 			for (Type type : protoFile.types()) {
@@ -140,6 +143,13 @@ public final class Linker {
 			throw new SchemaException(errors);
 		}
 
+		event.end();
+		if (event.shouldCommit()) {
+			event.protoFiles = protoFiles.size();
+			event.types = protoTypeNames.size();
+			event.commit();
+		}
+
 		return new Schema(protoFiles);
 	}
 
@@ -17,6 +17,7 @@ package com.squareup.wire.schema
 
 import com.google.common.base.CharMatcher
 import java.io.File
+import java.io.Serializable
 
 /**
  * Locates a .proto file, or a position within a .proto file, on the file system. This includes a
@@ -34,7 +35,7 @@ data class Location(
 
         /** The column on the line of this location, or -1 for no specific column.  */
         val column: Int = -1
-) {
+) : Serializable {
 
     fun at(line: Int, column: Int) = Location(base, path, line, column)
 
@@ -38,6 +38,7 @@ package com.squareup.wire.schema;
  * #L%
  */
 
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
 
@@ -45,7 +46,7 @@ import com.google.common.collect.ImmutableList;
 import com.squareup.wire.schema.internal.parser.GroupElement;
 import com.squareup.wire.schema.internal.parser.OneOfElement;
 
-public final class OneOf {
+public final class OneOf implements Serializable {
 	private final String name;
 	private String documentation;
 	private final List<Field> fields;
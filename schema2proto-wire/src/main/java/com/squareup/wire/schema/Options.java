@@ -41,6 +41,7 @@ package com.squareup.wire.schema;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.getOnlyElement;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -61,7 +62,7 @@ import com.squareup.wire.schema.internal.parser.OptionElement;
  * A set of options declared on a message declaration, field declaration, enum declaration, enum constant declaration, service declaration, RPC method
  * declaration, or proto file declaration. Options values may be arbitrary protocol buffer messages, but must be valid protocol buffer messages.
  */
-public final class Options {
+public final class Options implements Serializable {
 	public static final ProtoType FILE_OPTIONS = ProtoType.get("google.protobuf.FileOptions");
 	public static final ProtoType MESSAGE_OPTIONS = ProtoType.get("google.protobuf.MessageOptions");
 	public static final ProtoType FIELD_OPTIONS = ProtoType.get("google.protobuf.FieldOptions");
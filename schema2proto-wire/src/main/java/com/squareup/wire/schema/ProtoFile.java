@@ -40,6 +40,7 @@ package com.squareup.wire.schema;
 
 import static com.squareup.wire.schema.Options.FILE_OPTIONS;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -49,7 +50,7 @@ import com.google.common.collect.ImmutableList;
 import com.squareup.wire.schema.internal.parser.OptionElement;
 import com.squareup.wire.schema.internal.parser.ProtoFileElement;
 
-public final class ProtoFile {
+public final class ProtoFile implements Serializable {
 	static final ProtoMember JAVA_PACKAGE = ProtoMember.get(FILE_OPTIONS, "java_package");
 
 	private Location location;
@@ -41,6 +41,7 @@ package com.squareup.wire.schema;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -48,7 +49,7 @@ import java.util.Map;
 /**
  * Names a protocol buffer message, enumerated type, service, map, or a scalar. This class models a fully-qualified name using the protocol buffer package.
  */
-public final class ProtoType {
+public final class ProtoType implements Serializable {
 	public static final ProtoType BOOL = new ProtoType(true, "bool");
 	public static final ProtoType BYTES = new ProtoType(true, "bytes");
 	public static final ProtoType DOUBLE = new ProtoType(true, "double");
@@ -116,6 +117,11 @@ public final class ProtoType {
 		this.valueType = valueType;
 	}
 
+	/** Keeps the scalar constants unique when a type is deserialized. */
+	private Object readResolve() {
+		return isScalar ? SCALAR_TYPES.getOrDefault(typeName, this) : this;
+	}
+
 	public String simpleName() {
 		int dot = typeName.lastIndexOf('.');
 		return typeName.substring(dot + 1);
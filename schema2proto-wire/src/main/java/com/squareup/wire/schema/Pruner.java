@@ -66,6 +66,9 @@ final class Pruner {
 	}
 
 	public Schema prune() {
+		PruneEvent event = new PruneEvent();
+		event.begin();
+
 		markRoots();
 		markReachable();
 
@@ -74,6 +77,14 @@ final class Pruner {
 			retained.add(protoFile.retainAll(schema, marks));
 		}
 
+		event.end();
+		if (event.shouldCommit()) {
+			event.protoFiles = schema.protoFiles().size();
+			event.includes = identifierSet.includes().toString();
+			event.excludes = identifierSet.excludes().toString();
+			event.commit();
+		}
+
 		return new Schema(retained.build());
 	}
 
@@ -17,12 +17,13 @@ package com.squareup.wire.schema
 
 import com.google.common.collect.Range
 import com.squareup.wire.schema.internal.parser.ReservedElement
+import java.io.Serializable
 
 class Reserved(
         val location: Location,
         val documentation: String,
         val values: List<Any>
-) {
+) : Serializable {
     fun matchesTag(tag: Int) = values.any {
         it is Int && tag == it || (it as? Range<Int>)?.contains(tag) == true
     }
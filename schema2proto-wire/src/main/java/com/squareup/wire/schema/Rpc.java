@@ -38,12 +38,13 @@ package com.squareup.wire.schema;
  * #L%
  */
 
+import java.io.Serializable;
 import java.util.List;
 
 import com.google.common.collect.ImmutableList;
 import com.squareup.wire.schema.internal.parser.RpcElement;
 
-public final class Rpc {
+public final class Rpc implements Serializable {
 	private final Location location;
 	private final String name;
 	private final String documentation;
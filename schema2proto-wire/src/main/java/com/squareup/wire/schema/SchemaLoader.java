@@ -113,6 +113,8 @@ public final class SchemaLoader {
 			throw new IllegalStateException("No sources added.");
 		}
 
+		SchemaLoadEvent event = new SchemaLoadEvent();
+		event.begin();
 		try (Closer closer = Closer.create()) {
 			// Map the physical path to the file system root. For regular directories the key and the
 			// value are equal. For ZIP files the key is the path to the .zip, and the value is the root
@@ -127,7 +129,16 @@ public final class SchemaLoader {
 					directories.put(source, source);
 				}
 			}
-			return loadFromDirectories(directories);
+			Schema schema = loadFromDirectories(directories);
+
+			event.end();
+			if (event.shouldCommit()) {
+				event.sources = sources.toString();
+				event.requestedProtos = protos.size();
+				event.loadedProtoFiles = schema.protoFiles().size();
+				event.commit();
+			}
+			return schema;
 		}
 	}
 
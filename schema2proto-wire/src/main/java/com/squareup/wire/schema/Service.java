@@ -38,12 +38,13 @@ package com.squareup.wire.schema;
  * #L%
  */
 
+import java.io.Serializable;
 import java.util.List;
 
 import com.google.common.collect.ImmutableList;
 import com.squareup.wire.schema.internal.parser.ServiceElement;
 
-public final class Service {
+public final class Service implements Serializable {
 	private final ProtoType protoType;
 	private final Location location;
 	private final String name;
@@ -38,6 +38,7 @@ package com.squareup.wire.schema;
  * #L%
  */
 
+import java.io.Serializable;
 import java.util.List;
 
 import com.google.common.collect.ImmutableList;
@@ -45,7 +46,7 @@ import com.squareup.wire.schema.internal.parser.EnumElement;
 import com.squareup.wire.schema.internal.parser.MessageElement;
 import com.squareup.wire.schema.internal.parser.TypeElement;
 
-public abstract class Type {
+public abstract class Type implements Serializable {
 	public abstract Location location();
 
 	public abstract ProtoType type();
@@ -24,13 +24,14 @@ import com.squareup.wire.schema.internal.parser.OptionElement.Kind.MAP
 import com.squareup.wire.schema.internal.parser.OptionElement.Kind.NUMBER
 import com.squareup.wire.schema.internal.parser.OptionElement.Kind.OPTION
 import com.squareup.wire.schema.internal.parser.OptionElement.Kind.STRING
+import java.io.Serializable
 
 data class OptionElement(
         val name: String,
         val kind: Kind,
         val value: Any,
         private val isParenthesized: Boolean
-) {
+) : Serializable {
     enum class Kind {
         STRING,
         BOOLEAN,
@@ -39,8 +39,6 @@ import com.sun.xml.xsom.XSAttributeUse;
 import com.sun.xml.xsom.XSComplexType;
 import com.sun.xml.xsom.XSContentType;
 import com.sun.xml.xsom.XSElementDecl;
-import com.sun.xml.xsom.XSSchema;
-import com.sun.xml.xsom.XSSchemaSet;
 import com.sun.xml.xsom.XSSimpleType;
 import com.sun.xml.xsom.XSType;
 import com.sun.xml.xsom.XSWildcard;
@@ -49,7 +47,6 @@ import com.sun.xml.xsom.impl.parser.SchemaDocumentImpl;
 import com.sun.xml.xsom.impl.scd.Iterators;
 import com.sun.xml.xsom.visitor.XSFunction;
 import com.sun.xml.xsom.visitor.XSVisitor;
-import java.util.ArrayList;
 import java.util.List;
 import org.xml.sax.Locator;
 
@@ -280,28 +277,10 @@ public class ComplexTypeImpl extends AttributesHolder implements XSComplexType,
     public XSComplexType getType() { return this; }
 
     public List<XSComplexType> getSubtypes() {
-        ArrayList subtypeList = new ArrayList();
-        Iterator<XSComplexType> cTypes = getRoot().iterateComplexTypes();
-        while (cTypes.hasNext()) {
-            XSComplexType cType= cTypes.next();
-            XSType base = cType.getBaseType();
-            if ((base != null) && (base.equals(this))) {
-                subtypeList.add(cType);
-            }
-        }
-        return subtypeList;
+        return getOwnerSchema().getRoot().getSubtypes(this);
     }
 
     public List<XSElementDecl> getElementDecls() {
-        ArrayList declList = new ArrayList();
-        XSSchemaSet schemaSet = getRoot();
-        for (XSSchema sch : schemaSet.getSchemas()) {
-            for (XSElementDecl decl : sch.getElementDecls().values()) {
-                if (decl.getType().equals(this)) {
-                    declList.add(decl);
-                }
-            }
-        }
-        return declList;
+        return getOwnerSchema().getRoot().getElementDecls(this);
     }
 }
@@ -82,6 +82,20 @@ public class SchemaSetImpl implements XSSchemaSet
     private final Vector<XSSchema> schemas2 = new Vector<XSSchema>();
     private final List<XSSchema> readonlySchemaList = Collections.unmodifiableList(schemas2);
 
+    /**
+     * Direct subtypes of each type, keyed by base type.
+     * Built by {@link #buildSubtypeIndex()} once all the patchers have run,
+     * null until then.
+     */
+    private Map<XSType,List<XSComplexType>> subtypes = null;
+
+    /**
+     * Global element declarations of each type, keyed by type.
+     * Built by {@link #buildElementDeclIndex()} once all the patchers have run,
+     * null until then.
+     */
+    private Map<XSType,List<XSElementDecl>> elementDecls = null;
+
     /**
      * Gets a reference to the existing schema or creates a new one
      * if none exists yet.
@@ -220,6 +234,102 @@ public class SchemaSetImpl implements XSSchemaSet
             }
         };
     }
+
+    /**
+     * Indexes every complex type under its base type, so that
+     * {@link XSComplexType#getSubtypes()} does not need to scan
+     * the whole schema set on each call.
+     *
+     * Must be called again if types are added to the schema set.
+     */
+    public void buildSubtypeIndex() {
+        Map<XSType,List<XSComplexType>> index = new HashMap<XSType,List<XSComplexType>>();
+        Iterator<XSComplexType> cTypes = iterateComplexTypes();
+        while (cTypes.hasNext()) {
+            XSComplexType cType = cTypes.next();
+            XSType base = cType.getBaseType();
+            if (base != null) {
+                List<XSComplexType> list = index.get(base);
+                if (list == null) {
+                    list = new ArrayList<XSComplexType>();
+                    index.put(base, list);
+                }
+                list.add(cType);
+            }
+        }
+        for (Map.Entry<XSType,List<XSComplexType>> e : index.entrySet())
+            e.setValue(Collections.unmodifiableList(e.getValue()));
+        subtypes = index;
+    }
+
+    /**
+     * Gets the complex types directly derived from the given type.
+     */
+    List<XSComplexType> getSubtypes(XSType base) {
+        if (subtypes == null) {
+            // index not built yet, fall back to a full scan
+            List<XSComplexType> subtypeList = new ArrayList<XSComplexType>();
+            Iterator<XSComplexType> cTypes = iterateComplexTypes();
+            while (cTypes.hasNext()) {
+                XSComplexType cType = cTypes.next();
+                if (base.equals(cType.getBaseType())) {
+                    subtypeList.add(cType);
+                }
+            }
+            return subtypeList;
+        }
+        List<XSComplexType> subtypeList = subtypes.get(base);
+        if (subtypeList == null)
+            return Collections.emptyList();
+        return subtypeList;
+    }
+
+    /**
+     * Indexes every global element declaration under its type, so that
+     * {@link XSComplexType#getElementDecls()} does not need to scan
+     * the whole schema set on each call.
+     *
+     * Must be called again if element declarations are added to the schema set.
+     */
+    public void buildElementDeclIndex() {
+        Map<XSType,List<XSElementDecl>> index = new HashMap<XSType,List<XSElementDecl>>();
+        for (XSSchema sch : getSchemas()) {
+            for (XSElementDecl decl : sch.getElementDecls().values()) {
+                List<XSElementDecl> list = index.get(decl.getType());
+                if (list == null) {
+                    list = new ArrayList<XSElementDecl>();
+                    index.put(decl.getType(), list);
+                }
+                list.add(decl);
+            }
+        }
+        for (Map.Entry<XSType,List<XSElementDecl>> e : index.entrySet())
+            e.setValue(Collections.unmodifiableList(e.getValue()));
+        elementDecls = index;
+    }
+
+    /**
+     * Gets the global element declarations of the given type.
+     */
+    List<XSElementDecl> getElementDecls(XSType type) {
+        if (elementDecls == null) {
+            // index not built yet, fall back to a full scan
+            List<XSElementDecl> declList = new ArrayList<XSElementDecl>();
+            for (XSSchema sch : getSchemas()) {
+                for (XSElementDecl decl : sch.getElementDecls().values()) {
+                    if (decl.getType().equals(type)) {
+                        declList.add(decl);
+                    }
+                }
+            }
+            return declList;
+        }
+        List<XSElementDecl> declList = elementDecls.get(type);
+        if (declList == null)
+            return Collections.emptyList();
+        return declList;
+    }
+
     public Iterator<XSNotation> iterateNotations() {
         return new Iterators.Map<XSNotation,XSSchema>(iterateSchema()) {
             protected Iterator<XSNotation> apply(XSSchema u) {
@@ -374,29 +484,11 @@ public class SchemaSetImpl implements XSSchemaSet
                 })
                 ,null,1,1);
         public List<XSComplexType> getSubtypes() {
-            ArrayList subtypeList = new ArrayList();
-            Iterator<XSComplexType> cTypes = getRoot().iterateComplexTypes();
-            while (cTypes.hasNext()) {
-                XSComplexType cType= cTypes.next();
-                XSType base = cType.getBaseType();
-                if ((base != null) && (base.equals(this))) {
-                    subtypeList.add(cType);
-                }
-            }
-            return subtypeList;
+            return SchemaSetImpl.this.getSubtypes(this);
         }
 
         public List<XSElementDecl> getElementDecls() {
-            ArrayList declList = new ArrayList();
-            XSSchemaSet schemaSet = getRoot();
-            for (XSSchema sch : schemaSet.getSchemas()) {
-                for (XSElementDecl decl : sch.getElementDecls().values()) {
-                    if (decl.getType().equals(this)) {
-                        declList.add(decl);
-                    }
-                }
-            }
-            return declList;
+            return SchemaSetImpl.this.getElementDecls(this);
         }
     }
 }
@@ -0,0 +1,393 @@
+package com.sun.xml.xsom.impl.parser;
+
+/*-
+ * #%L
+ * XSOM
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ * 
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ * 
+ * http://ec.europa.eu/idabc/eupl5
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+
+
+import com.sun.xml.xsom.impl.Const;
+import com.sun.xml.xsom.parser.XMLParser;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses the documents referenced through {@code <xs:include>},
+ * {@code <xs:import>} and {@code <xs:redefine>} ahead of time
+ * on a bounded pool of threads.
+ *
+ * <p>
+ * Each document is SAX-parsed into a recording of its events. The schema
+ * set itself is still built on the calling thread, in the same order
+ * as a sequential parse: when {@link NGCCRuntimeEx} reaches a document,
+ * its recording is replayed instead of reading the document again.
+ * {@link ParserContext#parsedDocuments} and the patchers therefore see
+ * exactly the same sequence of events.
+ *
+ * <p>
+ * Documents that could not be prefetched, or that reported any warning
+ * or error while prefetching, are parsed again on the calling thread
+ * so that problems are reported as usual.
+ *
+ * <p>
+ * The {@link EntityResolver} is called from the prefetching threads
+ * and must be thread safe.
+ */
+final class DocumentPrefetcher {
+
+    private final XMLParser parser;
+    private final EntityResolver entityResolver;
+    private final ExecutorService executor;
+
+    /** Absolute system IDs already scheduled, before entity resolution. */
+    private final Set<String> requested = ConcurrentHashMap.newKeySet();
+
+    /** Recordings by the system ID of the resolved {@link InputSource}. */
+    private final Map<String,Future<RecordedDocument>> documents = new ConcurrentHashMap<String,Future<RecordedDocument>>();
+
+    DocumentPrefetcher( XMLParser parser, EntityResolver entityResolver, int threads ) {
+        this.parser = parser;
+        this.entityResolver = entityResolver;
+        this.executor = Executors.newFixedThreadPool(threads, new PrefetchThreadFactory());
+    }
+
+    /**
+     * Starts prefetching the given document and everything it references.
+     * Sources backed by a stream are left to the calling thread.
+     */
+    void prefetch( InputSource source ) {
+        if (source.getSystemId() != null && source.getByteStream() == null && source.getCharacterStream() == null
+                && requested.add(source.getSystemId()))
+            submit(source);
+    }
+
+    /**
+     * Gets the recording of the given document, waiting for it if it is
+     * still being parsed.
+     *
+     * @return null if the document was not prefetched, or could not be.
+     */
+    RecordedDocument get( InputSource source ) {
+        if (source.getSystemId() == null)
+            return null;
+        Future<RecordedDocument> document = documents.get(source.getSystemId());
+        if (document == null)
+            return null;
+        try {
+            return document.get();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Stops prefetching and drops all recordings.
+     */
+    void shutdown() {
+        executor.shutdownNow();
+        documents.clear();
+    }
+
+    private void prefetchReference( String baseUri, String namespaceURI, String relativeUri ) {
+        try {
+            if (baseUri == null || !requested.add(baseUri + '\u0000' + relativeUri))
+                return;
+            InputSource source = NGCCRuntimeEx.resolveRelativeURL(baseUri, namespaceURI, relativeUri, entityResolver);
+            if (source != null && source.getSystemId() != null && requested.add(source.getSystemId()))
+                submit(source);
+        } catch (SAXException e) {
+            // reported again when the document is parsed on the calling thread
+        } catch (IOException e) {
+            // reported again when the document is parsed on the calling thread
+        }
+    }
+
+    private void submit( final InputSource source ) {
+        try {
+            documents.put(source.getSystemId(), executor.submit(() -> record(source)));
+        } catch (RejectedExecutionException e) {
+            // already shut down
+        }
+    }
+
+    private RecordedDocument record( InputSource source ) throws SAXException, IOException {
+        Recorder recorder = new Recorder(this, source.getSystemId());
+        parser.parse(source, recorder, recorder, entityResolver);
+        return recorder.document;
+    }
+
+    /**
+     * Records the events of a single document, without looking at
+     * the documents it references.
+     */
+    static RecordedDocument record( XMLParser parser, InputSource source ) throws SAXException, IOException {
+        Recorder recorder = new Recorder(null, source.getSystemId());
+        parser.parse(source, recorder, recorder, null);
+        return recorder.document;
+    }
+
+    /**
+     * Closes the streams of a source whose recording was replayed, as the
+     * parser would have done after reading it.
+     */
+    static void close( InputSource source ) {
+        closeQuietly(source.getByteStream());
+        closeQuietly(source.getCharacterStream());
+    }
+
+    private static void closeQuietly( Closeable closeable ) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // nothing was read from it
+            }
+        }
+    }
+
+    /**
+     * SAX events of one document together with their locations.
+     * Once recorded, it may be replayed any number of times from any thread.
+     */
+    static final class RecordedDocument {
+        private final List<Event> events = new ArrayList<Event>();
+        private boolean hasLocator;
+
+        void replay( ContentHandler handler ) throws SAXException {
+            ReplayLocator locator = new ReplayLocator();
+            if (hasLocator)
+                handler.setDocumentLocator(locator);
+            for (Event event : events) {
+                locator.moveTo(event);
+                event.replay(handler);
+            }
+        }
+    }
+
+    private static final class ReplayLocator implements Locator {
+        private String publicId;
+        private String systemId;
+        private int lineNumber;
+        private int columnNumber;
+
+        void moveTo( Event event ) {
+            publicId = event.publicId;
+            systemId = event.systemId;
+            lineNumber = event.lineNumber;
+            columnNumber = event.columnNumber;
+        }
+
+        public String getPublicId() { return publicId; }
+        public String getSystemId() { return systemId; }
+        public int getLineNumber() { return lineNumber; }
+        public int getColumnNumber() { return columnNumber; }
+    }
+
+    private abstract static class Event {
+        String publicId;
+        String systemId;
+        int lineNumber = -1;
+        int columnNumber = -1;
+
+        abstract void replay( ContentHandler handler ) throws SAXException;
+    }
+
+    /**
+     * Records the events of one document and, when recording for a
+     * prefetcher, schedules the documents it references.
+     */
+    private static final class Recorder implements ContentHandler, ErrorHandler {
+        private final RecordedDocument document = new RecordedDocument();
+        private final DocumentPrefetcher prefetcher;
+        private final String documentSystemId;
+        private Locator locator;
+        private int depth = 0;
+
+        Recorder( DocumentPrefetcher prefetcher, String documentSystemId ) {
+            this.prefetcher = prefetcher;
+            this.documentSystemId = documentSystemId;
+        }
+
+        private void add( Event event ) {
+            if (locator != null) {
+                event.publicId = locator.getPublicId();
+                event.systemId = locator.getSystemId();
+                event.lineNumber = locator.getLineNumber();
+                event.columnNumber = locator.getColumnNumber();
+            }
+            document.events.add(event);
+        }
+
+        public void setDocumentLocator( Locator locator ) {
+            this.locator = locator;
+            document.hasLocator = true;
+        }
+
+        public void startDocument() {
+            add(new Event() {
+                void replay( ContentHandler handler ) throws SAXException {
+                    handler.startDocument();
+                }
+            });
+        }
+
+        public void endDocument() {
+            add(new Event() {
+                void replay( ContentHandler handler ) throws SAXException {
+                    handler.endDocument();
+                }
+            });
+        }
+
+        public void startPrefixMapping( final String prefix, final String uri ) {
+            add(new Event() {
+                void replay( ContentHandler handler ) throws SAXException {
+                    handler.startPrefixMapping(prefix, uri);
+                }
+            });
+        }
+
+        public void endPrefixMapping( final String prefix ) {
+            add(new Event() {
+                void replay( ContentHandler handler ) throws SAXException {
+                    handler.endPrefixMapping(prefix);
+                }
+            });
+        }
+
+        public void startElement( final String uri, final String localName, final String qName, Attributes atts ) {
+            final Attributes copy = new AttributesImpl(atts);
+            add(new Event() {
+                void replay( ContentHandler handler ) throws SAXException {
+                    handler.startElement(uri, localName, qName, copy);
+                }
+            });
+
+            depth++;
+            // references are top level children of <xs:schema>
+            if (prefetcher != null && depth == 2 && Const.schemaNamespace.equals(uri)) {
+                if (localName.equals("include") || localName.equals("redefine"))
+                    prefetcher.prefetchReference(baseUri(), null, atts.getValue("schemaLocation"));
+                else if (localName.equals("import") && atts.getValue("schemaLocation") != null)
+                    prefetcher.prefetchReference(baseUri(), atts.getValue("namespace"), atts.getValue("schemaLocation"));
+            }
+        }
+
+        private String baseUri() {
+            if (locator != null && locator.getSystemId() != null)
+                return locator.getSystemId();
+            return documentSystemId;
+        }
+
+        public void endElement( final String uri, final String localName, final String qName ) {
+            depth--;
+            add(new Event() {
+                void replay( ContentHandler handler ) throws SAXException {
+                    handler.endElement(uri, localName, qName);
+                }
+            });
+        }
+
+        public void characters( char[] ch, int start, int length ) {
+            final char[] copy = Arrays.copyOfRange(ch, start, start + length);
+            add(new Event() {
+                void replay( ContentHandler handler ) throws SAXException {
+                    handler.characters(copy, 0, copy.length);
+                }
+            });
+        }
+
+        public void ignorableWhitespace( char[] ch, int start, int length ) {
+            final char[] copy = Arrays.copyOfRange(ch, start, start + length);
+            add(new Event() {
+                void replay( ContentHandler handler ) throws SAXException {
+                    handler.ignorableWhitespace(copy, 0, copy.length);
+                }
+            });
+        }
+
+        public void processingInstruction( final String target, final String data ) {
+            add(new Event() {
+                void replay( ContentHandler handler ) throws SAXException {
+                    handler.processingInstruction(target, data);
+                }
+            });
+        }
+
+        public void skippedEntity( final String name ) {
+            add(new Event() {
+                void replay( ContentHandler handler ) throws SAXException {
+                    handler.skippedEntity(name);
+                }
+            });
+        }
+
+        // any diagnostic discards the recording, the calling thread parses the document again and reports it
+
+        public void warning( SAXParseException exception ) throws SAXException {
+            throw exception;
+        }
+
+        public void error( SAXParseException exception ) throws SAXException {
+            throw exception;
+        }
+
+        public void fatalError( SAXParseException exception ) throws SAXException {
+            throw exception;
+        }
+    }
+
+    private static final class PrefetchThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread( Runnable r ) {
+            Thread thread = new Thread(r, "xsom-prefetch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
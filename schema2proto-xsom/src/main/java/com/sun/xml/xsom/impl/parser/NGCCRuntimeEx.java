@@ -197,43 +197,55 @@ public class NGCCRuntimeEx extends NGCCRuntime implements PatcherManager {
                 // better than nothing.
                 baseUri=documentSystemId;
 
-            EntityResolver er = parser.getEntityResolver();
-            String systemId = null;
+            return resolveRelativeURL(baseUri, namespaceURI, relativeUri, parser.getEntityResolver());
+        } catch (IOException e) {
+            SAXParseException se = new SAXParseException(e.getMessage(),getLocator(),e);
+            parser.errorHandler.error(se);
+            return null;
+        }
+    }
 
-            if (relativeUri!=null) {
-                if (isAbsolute(relativeUri)) {
-                    systemId = relativeUri;
-                }
-                if (baseUri == null || !isAbsolute(baseUri)) {
-                    throw new IOException("Unable to resolve relative URI " + relativeUri + " because base URI is not absolute: " + baseUri);
-                }
-                systemId = new URL(new URL(baseUri), relativeUri).toString();
+    /**
+     * Resolves relative URI against the given base URI and
+     * passes it through the entity resolver.
+     *
+     * <p>
+     * Shared with {@link DocumentPrefetcher} so that prefetched
+     * documents are found under the same system ID.
+     */
+    static InputSource resolveRelativeURL( String baseUri, String namespaceURI, String relativeUri, EntityResolver er )
+            throws SAXException, IOException {
+        String systemId = null;
+
+        if (relativeUri!=null) {
+            if (isAbsolute(relativeUri)) {
+                systemId = relativeUri;
+            }
+            if (baseUri == null || !isAbsolute(baseUri)) {
+                throw new IOException("Unable to resolve relative URI " + relativeUri + " because base URI is not absolute: " + baseUri);
             }
+            systemId = new URL(new URL(baseUri), relativeUri).toString();
+        }
 
-            if (er!=null) {
-                InputSource is = er.resolveEntity(namespaceURI,systemId);
-                if (is == null) {
-                    try {
-                        String normalizedSystemId = URI.create(systemId).normalize().toASCIIString();
-                        is = er.resolveEntity(namespaceURI,normalizedSystemId);
-                    } catch (Exception e) {
-                        // just ignore, this is a second try, return the fallback if this breaks
-                    }
-                }
-                if (is != null) {
-                    return is;
+        if (er!=null) {
+            InputSource is = er.resolveEntity(namespaceURI,systemId);
+            if (is == null) {
+                try {
+                    String normalizedSystemId = URI.create(systemId).normalize().toASCIIString();
+                    is = er.resolveEntity(namespaceURI,normalizedSystemId);
+                } catch (Exception e) {
+                    // just ignore, this is a second try, return the fallback if this breaks
                 }
             }
+            if (is != null) {
+                return is;
+            }
+        }
 
-            if (systemId!=null)
-                return new InputSource(systemId);
-            else
-                return null;
-        } catch (IOException e) {
-            SAXParseException se = new SAXParseException(e.getMessage(),getLocator(),e);
-            parser.errorHandler.error(se);
+        if (systemId!=null)
+            return new InputSource(systemId);
+        else
             return null;
-        }
     }
 
     private static final Pattern P = Pattern.compile(".*[/#?].*");
@@ -367,11 +379,13 @@ public class NGCCRuntimeEx extends NGCCRuntime implements PatcherManager {
             throws SAXException {
 
         documentSystemId = source.getSystemId();
+        ParseEntityEvent event = new ParseEntityEvent();
+        event.begin();
         try {
             Schema s = new Schema(this,includeMode,expectedNamespace);
             setRootHandler(s);
             try {
-                parser.parser.parse(source,this, getErrorHandler(), parser.getEntityResolver());
+                parser.parseDocument(source,this, getErrorHandler(), parser.getEntityResolver());
             } catch( IOException fnfe ) {
                 SAXParseException se = new SAXParseException(fnfe.toString(), importLocation, fnfe);
                 parser.errorHandler.warning(se);
@@ -379,6 +393,14 @@ public class NGCCRuntimeEx extends NGCCRuntime implements PatcherManager {
         } catch( SAXException e ) {
             parser.setErrorFlag();
             throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.systemId = documentSystemId;
+                event.expectedNamespace = expectedNamespace;
+                event.includeMode = includeMode;
+                event.commit();
+            }
         }
     }
 
@@ -0,0 +1,51 @@
+package com.sun.xml.xsom.impl.parser;
+
+/*-
+ * #%L
+ * XSOM
+ * %%
+ * Copyright (C) 2019 - 2026 Entur
+ * %%
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be
+ * approved by the European Commission - subsequent versions of the
+ * EUPL (the "Licence");
+ * 
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ * 
+ * http://ec.europa.eu/idabc/eupl5
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ * #L%
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering the parsing of one schema document,
+ * see {@link NGCCRuntimeEx#parseEntity}.
+ */
+@Name("no.entur.schema2proto.xsom.ParseEntity")
+@Label("Parse Schema Document")
+@Description("Parsing of a single XML schema document including its annotations")
+@Category({ "schema2proto", "XSOM" })
+final class ParseEntityEvent extends jdk.jfr.Event {
+
+    @Label("System Id")
+    String systemId;
+
+    @Label("Expected Namespace")
+    @Description("Target namespace expected by the importing document, if any")
+    String expectedNamespace;
+
+    @Label("Include")
+    @Description("True if the document is parsed as an xsd:include")
+    boolean includeMode;
+}
@@ -38,8 +38,10 @@ import com.sun.xml.xsom.impl.ElementDecl;
 import com.sun.xml.xsom.impl.SchemaImpl;
 import com.sun.xml.xsom.impl.SchemaSetImpl;
 import com.sun.xml.xsom.parser.AnnotationParserFactory;
+import com.sun.xml.xsom.parser.JAXPParser;
 import com.sun.xml.xsom.parser.XMLParser;
 import com.sun.xml.xsom.parser.XSOMParser;
+import org.xml.sax.ContentHandler;
 import org.xml.sax.EntityResolver;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
@@ -47,6 +49,9 @@ import org.xml.sax.Locator;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
@@ -73,6 +78,12 @@ public class ParserContext {
 
     final XMLParser parser;
 
+    /** Set while a parse with {@link XSOMParser#setParallelism(int)} above one is running. */
+    private DocumentPrefetcher prefetcher;
+
+    /** Set while the built-in datatypes are added to {@link #schemaSet}. */
+    private InputSource datatypesSource;
+
 
     private final Vector<Patch> patchers = new Vector<Patch>();
     private final Vector<Patch> errorCheckers = new Vector<Patch>();
@@ -91,18 +102,43 @@ public class ParserContext {
         this.owner = owner;
         this.parser = parser;
 
-        try (InputStream is = ParserContext.class.getResourceAsStream("datatypes.xsd")) {
-            InputSource source = new InputSource(is);
-            source.setSystemId("datatypes.xsd");
-            parse(source);
+        try {
+            // replays the events of datatypes.xsd, which is only read once per JVM
+            datatypesSource = new InputSource(DATATYPES_SYSTEM_ID);
+            newNGCCRuntime().parseEntity(datatypesSource,false,null,null);
 
             SchemaImpl xs = (SchemaImpl)
                     schemaSet.getSchema("http://www.w3.org/2001/XMLSchema");
             xs.addSimpleType(schemaSet.anySimpleType,true);
             xs.addComplexType(schemaSet.anyType,true);
-        } catch( SAXException | IOException e ) {
+        } catch( SAXException e ) {
             // this must be a bug of XSOM
             throw new InternalError(e.getMessage());
+        } finally {
+            datatypesSource = null;
+        }
+    }
+
+    private static final String DATATYPES_SYSTEM_ID = "datatypes.xsd";
+
+    /**
+     * The bundled datatypes.xsd, recorded the first time a
+     * {@link ParserContext} is created.
+     */
+    private static final class BuiltinDatatypes {
+        static final DocumentPrefetcher.RecordedDocument DOCUMENT = record();
+
+        private static DocumentPrefetcher.RecordedDocument record() {
+            try (InputStream is = ParserContext.class.getResourceAsStream(DATATYPES_SYSTEM_ID)) {
+                InputSource source = new InputSource(is);
+                source.setSystemId(DATATYPES_SYSTEM_ID);
+                SAXParserFactory factory = SAXParserFactory.newInstance();
+                factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+                return DocumentPrefetcher.record(new JAXPParser(factory), source);
+            } catch( SAXException | ParserConfigurationException | IOException e ) {
+                // this must be a bug of XSOM
+                throw new InternalError(e.getMessage());
+            }
         }
     }
 
@@ -118,7 +154,41 @@ public class ParserContext {
      * Parses a new XML Schema document.
      */
     public void parse( InputSource source ) throws SAXException {
-        newNGCCRuntime().parseEntity(source,false,null,null);
+        int parallelism = owner.getParallelism();
+        if (parallelism > 1) {
+            prefetcher = new DocumentPrefetcher(parser, getEntityResolver(), parallelism);
+            try {
+                prefetcher.prefetch(source);
+                newNGCCRuntime().parseEntity(source,false,null,null);
+            } finally {
+                prefetcher.shutdown();
+                prefetcher = null;
+            }
+        } else {
+            newNGCCRuntime().parseEntity(source,false,null,null);
+        }
+    }
+
+    /**
+     * Sends the SAX events of one document to the handler, replaying
+     * them if the document has been prefetched.
+     */
+    void parseDocument( InputSource source, ContentHandler handler,
+        ErrorHandler errorHandler, EntityResolver entityResolver ) throws SAXException, IOException {
+
+        if (source == datatypesSource) {
+            BuiltinDatatypes.DOCUMENT.replay(handler);
+            return;
+        }
+        if (prefetcher != null) {
+            DocumentPrefetcher.RecordedDocument document = prefetcher.get(source);
+            if (document != null) {
+                document.replay(handler);
+                DocumentPrefetcher.close(source);
+                return;
+            }
+        }
+        parser.parse(source, handler, errorHandler, entityResolver);
     }
 
 
@@ -128,11 +198,17 @@ public class ParserContext {
             patcher.run();
         patchers.clear();
 
+        // index the complex types by their base type
+        schemaSet.buildSubtypeIndex();
+
         // build the element substitutability map
         Iterator itr = schemaSet.iterateElementDecls();
         while(itr.hasNext())
             ((ElementDecl)itr.next()).updateSubstitutabilityMap();
 
+        // index the global element declarations by their type
+        schemaSet.buildElementDeclIndex();
+
         // run all the error checkers
         for (Patch patcher : errorCheckers)
             patcher.run();
@@ -82,7 +82,12 @@ public class JAXPParser implements XMLParser {
         throws SAXException, IOException {
         
         try {
-            SAXParser saxParser = allowFileAccess(factory.newSAXParser(), false);
+            SAXParser saxParser;
+            // SAXParserFactory is not guaranteed to be thread safe
+            synchronized (factory) {
+                saxParser = factory.newSAXParser();
+            }
+            saxParser = allowFileAccess(saxParser, false);
             XMLReader reader = new XMLReaderEx(saxParser.getXMLReader());
 
             reader.setContentHandler(handler);
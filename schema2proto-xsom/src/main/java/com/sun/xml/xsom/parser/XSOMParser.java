@@ -67,6 +67,8 @@ public final class XSOMParser {
     private ErrorHandler userErrorHandler;
     
     private AnnotationParserFactory apFactory;
+
+    private int parallelism = 1;
     
     private final ParserContext context;
     
@@ -276,4 +278,28 @@ public final class XSOMParser {
     public AnnotationParserFactory getAnnotationParserFactory() {
         return apFactory;
     }
+
+    /**
+     * Sets the number of threads used to read included and imported
+     * schema documents.
+     *
+     * <p>
+     * With more than one thread, the documents referenced from a parsed
+     * document are SAX-parsed ahead of time on a bounded pool of threads,
+     * while the schema set is still built in the same order as a
+     * sequential parse. The result is identical. The {@link EntityResolver},
+     * if any, is called from the pool threads and must be thread safe.
+     *
+     * @param parallelism
+     *      number of threads, 1 (the default) parses sequentially.
+     */
+    public void setParallelism( int parallelism ) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be at least 1, was " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
 }
@@ -37,13 +37,24 @@
  * Created on April 13, 2006, 9:54 AM
  */
 
+import com.sun.xml.xsom.XSComplexType;
+import com.sun.xml.xsom.XSElementDecl;
+import com.sun.xml.xsom.XSSchema;
+import com.sun.xml.xsom.XSType;
 import com.sun.xml.xsom.XSSchemaSet;
 import com.sun.xml.xsom.parser.XSOMParser;
 import com.sun.xml.xsom.parser.SchemaDocument;
 import junit.framework.*;
 import org.xml.sax.InputSource;
 
+import java.io.File;
+import java.io.StringReader;
+import java.nio.file.Files;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -112,5 +123,185 @@ public class XSOMParserTest extends TestCase {
         XSSchemaSet result = instance.getResult();
     }
 
+    /**
+     * Test of getSubtypes method, of class com.sun.xml.xsom.XSComplexType.
+     */
+    public void testGetSubtypes() throws Exception {
+        System.out.println("getSubtypes");
+
+        String schema = "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:t='urn:test' targetNamespace='urn:test'>"
+            + "<xs:complexType name='Base'><xs:sequence><xs:element name='a' type='xs:string'/></xs:sequence></xs:complexType>"
+            + "<xs:complexType name='Left'><xs:complexContent><xs:extension base='t:Base'/></xs:complexContent></xs:complexType>"
+            + "<xs:complexType name='Right'><xs:complexContent><xs:extension base='t:Base'/></xs:complexContent></xs:complexType>"
+            + "<xs:complexType name='Leaf'><xs:complexContent><xs:extension base='t:Left'/></xs:complexContent></xs:complexType>"
+            + "</xs:schema>";
+        InputSource source = new InputSource(new StringReader(schema));
+        source.setSystemId("urn:test.xsd");
+        instance.parse(source);
+        XSSchemaSet result = instance.getResult();
+
+        XSComplexType base = result.getComplexType("urn:test", "Base");
+        assertEquals(2, base.getSubtypes().size());
+        assertTrue(base.getSubtypes().contains(result.getComplexType("urn:test", "Left")));
+        assertTrue(base.getSubtypes().contains(result.getComplexType("urn:test", "Right")));
+        assertEquals("Leaf", result.getComplexType("urn:test", "Left").getSubtypes().get(0).getName());
+        assertTrue(result.getComplexType("urn:test", "Leaf").getSubtypes().isEmpty());
+
+        // the index must agree with a scan of all complex types
+        Iterator<XSComplexType> types = result.iterateComplexTypes();
+        while (types.hasNext()) {
+            XSComplexType type = types.next();
+            List<XSComplexType> expected = new ArrayList<XSComplexType>();
+            Iterator<XSComplexType> candidates = result.iterateComplexTypes();
+            while (candidates.hasNext()) {
+                XSComplexType candidate = candidates.next();
+                if (type.equals(candidate.getBaseType()))
+                    expected.add(candidate);
+            }
+            assertEquals(expected, type.getSubtypes());
+        }
+    }
+
+    /**
+     * Test of getElementDecls method, of class com.sun.xml.xsom.XSComplexType.
+     */
+    public void testGetElementDecls() throws Exception {
+        System.out.println("getElementDecls");
+
+        String schema = "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:t='urn:test' targetNamespace='urn:test'>"
+            + "<xs:complexType name='Used'><xs:sequence><xs:element name='a' type='xs:string'/></xs:sequence></xs:complexType>"
+            + "<xs:complexType name='Unused'><xs:sequence><xs:element name='b' type='xs:string'/></xs:sequence></xs:complexType>"
+            + "<xs:element name='First' type='t:Used'/>"
+            + "<xs:element name='Second' type='t:Used'/>"
+            + "<xs:element name='Untyped'/>"
+            + "</xs:schema>";
+        InputSource source = new InputSource(new StringReader(schema));
+        source.setSystemId("urn:test.xsd");
+        instance.parse(source);
+        XSSchemaSet result = instance.getResult();
+
+        List<XSElementDecl> used = result.getComplexType("urn:test", "Used").getElementDecls();
+        assertEquals(2, used.size());
+        assertTrue(used.contains(result.getElementDecl("urn:test", "First")));
+        assertTrue(used.contains(result.getElementDecl("urn:test", "Second")));
+        assertTrue(result.getComplexType("urn:test", "Unused").getElementDecls().isEmpty());
+        assertEquals(1, result.getAnyType().getElementDecls().size());
+
+        // the index must agree with a scan of all global element declarations
+        Iterator<XSComplexType> types = result.iterateComplexTypes();
+        while (types.hasNext()) {
+            XSComplexType type = types.next();
+            List<XSElementDecl> expected = new ArrayList<XSElementDecl>();
+            for (XSSchema sch : result.getSchemas()) {
+                for (XSElementDecl decl : sch.getElementDecls().values()) {
+                    if (decl.getType().equals(type))
+                        expected.add(decl);
+                }
+            }
+            assertEquals(expected, type.getElementDecls());
+        }
+    }
+
+    /**
+     * Test that every parser gets its own copy of the built-in datatypes.
+     */
+    public void testBuiltinDatatypes() throws Exception {
+        System.out.println("builtinDatatypes");
+
+        String schema = "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' targetNamespace='urn:test'>"
+            + "<xs:simpleType name='Code'><xs:restriction base='xs:token'/></xs:simpleType>"
+            + "</xs:schema>";
+        InputSource source = new InputSource(new StringReader(schema));
+        source.setSystemId("urn:test.xsd");
+        instance.parse(source);
+        XSSchemaSet first = instance.getResult();
+
+        XSOMParser other = new XSOMParser();
+        other.parse(new InputSource(new StringReader(schema)));
+        XSSchemaSet second = other.getResult();
+
+        XSSchema xs = first.getSchema("http://www.w3.org/2001/XMLSchema");
+        XSSchema otherXs = second.getSchema("http://www.w3.org/2001/XMLSchema");
+        assertNotSame(xs, otherXs);
+        assertEquals(xs.getSimpleTypes().keySet(), otherXs.getSimpleTypes().keySet());
+        assertNotSame(xs.getSimpleType("token"), otherXs.getSimpleType("token"));
+        assertSame(first.getAnySimpleType(), xs.getSimpleType("anySimpleType"));
+        assertSame(first.getAnyType(), xs.getComplexType("anyType"));
+        assertSame(xs.getSimpleType("token"), first.getSimpleType("urn:test", "Code").getBaseType());
+        assertSame(otherXs.getSimpleType("token"), second.getSimpleType("urn:test", "Code").getBaseType());
+        assertSame(first, xs.getRoot());
+        assertSame(second, otherXs.getRoot());
+        assertTrue(xs.getSimpleType("token").getLocator().getSystemId().endsWith("datatypes.xsd"));
+    }
+
+    /**
+     * Test of setParallelism method, of class com.sun.xml.xsom.parser.XSOMParser.
+     */
+    public void testParallelParse() throws Exception {
+        System.out.println("parallelParse");
+
+        File dir = new File("target/xsom-parallel");
+        new File(dir, "sub").mkdirs();
+        String header = "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:a='urn:a' xmlns:b='urn:b'";
+        write(dir, "root.xsd", header + " targetNamespace='urn:a'>"
+            + "<xs:include schemaLocation='included.xsd'/>"
+            + "<xs:import namespace='urn:b' schemaLocation='sub/imported.xsd'/>"
+            + "<xs:complexType name='Root'><xs:complexContent><xs:extension base='a:Included'>"
+            + "<xs:sequence><xs:element name='b' type='b:Imported'/></xs:sequence>"
+            + "</xs:extension></xs:complexContent></xs:complexType>"
+            + "</xs:schema>");
+        write(dir, "included.xsd", header + " targetNamespace='urn:a'>"
+            + "<xs:import namespace='urn:b' schemaLocation='sub/imported.xsd'/>"
+            + "<xs:complexType name='Included'><xs:sequence><xs:element name='a' type='xs:string'/></xs:sequence></xs:complexType>"
+            + "</xs:schema>");
+        write(dir, "sub/imported.xsd", header + " targetNamespace='urn:b'>"
+            + "<xs:include schemaLocation='../chameleon.xsd'/>"
+            + "<xs:complexType name='Imported'><xs:sequence><xs:element name='c' type='b:Chameleon'/></xs:sequence></xs:complexType>"
+            + "</xs:schema>");
+        write(dir, "chameleon.xsd", "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>"
+            + "<xs:simpleType name='Chameleon'><xs:restriction base='xs:string'/></xs:simpleType>"
+            + "</xs:schema>");
+
+        XSOMParser sequential = new XSOMParser();
+        sequential.parse(new File(dir, "root.xsd"));
+        XSSchemaSet expected = sequential.getResult();
+
+        XSOMParser parallel = new XSOMParser();
+        parallel.setParallelism(4);
+        parallel.parse(new File(dir, "root.xsd"));
+        XSSchemaSet actual = parallel.getResult();
+
+        assertEquals(systemIds(sequential.getDocuments()), systemIds(parallel.getDocuments()));
+        assertEquals(describe(expected), describe(actual));
+        assertEquals("Included", actual.getComplexType("urn:a", "Root").getBaseType().getName());
+        assertNotNull(actual.getSimpleType("urn:b", "Chameleon"));
+    }
+
+    private static void write(File dir, String name, String content) throws Exception {
+        Files.write(new File(dir, name).toPath(), content.getBytes("UTF-8"));
+    }
+
+    private static List<String> systemIds(Set<SchemaDocument> documents) {
+        List<String> systemIds = new ArrayList<String>();
+        for (SchemaDocument document : documents)
+            systemIds.add(document.getSystemId() + " " + document.getTargetNamespace());
+        // parsedDocuments is a hash map, compare regardless of order
+        Collections.sort(systemIds);
+        return systemIds;
+    }
+
+    private static List<String> describe(XSSchemaSet schemaSet) {
+        List<String> description = new ArrayList<String>();
+        Iterator<XSType> types = schemaSet.iterateTypes();
+        while (types.hasNext()) {
+            XSType type = types.next();
+            if (type.getTargetNamespace().equals("http://www.w3.org/2001/XMLSchema"))
+                continue;
+            description.add(type.getTargetNamespace() + " " + type.getName() + " extends " + type.getBaseType().getName()
+                + " at " + type.getLocator().getSystemId() + ":" + type.getLocator().getLineNumber() + ":" + type.getLocator().getColumnNumber());
+        }
+        Collections.sort(description);
+        return description;
+    }
 
 }